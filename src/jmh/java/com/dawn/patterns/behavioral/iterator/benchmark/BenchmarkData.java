@@ -0,0 +1,94 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.LinkedBookCollection;
+
+/**
+ * 基准测试数据工具类
+ * 为各个基准测试构造相同内容的书籍集合
+ *
+ * 书籍对象从固定大小的样本池中循环取用，避免 1000 万级别的规模下
+ * 测试数据本身（标题、作者字符串）占满堆内存而干扰测量结果。
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class BenchmarkData {
+
+    /**
+     * 样本池大小（2 的幂，便于取模）
+     */
+    private static final int POOL_SIZE = 1024;
+
+    private static final String[] AUTHORS = {
+        "GoF", "Robert Martin", "Joshua Bloch", "Martin Fowler",
+        "Cay Horstmann", "Thomas Cormen", "Mark Weiss", "Abraham Silberschatz"
+    };
+
+    private static final Book[] POOL = createPool();
+
+    private BenchmarkData() {
+    }
+
+    private static Book[] createPool() {
+        Book[] pool = new Book[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = new Book("Book-" + i, AUTHORS[i % AUTHORS.length]);
+        }
+        return pool;
+    }
+
+    /**
+     * 获取第 index 本样本书籍
+     *
+     * @param index 序号
+     * @return 样本书籍
+     */
+    public static Book book(int index) {
+        return POOL[index & (POOL_SIZE - 1)];
+    }
+
+    /**
+     * 创建BookCollection（内部为带位置索引的BookTable），按序号依次添加样本书籍
+     *
+     * @param size 书籍数量
+     * @return 书籍集合
+     */
+    public static BookCollection bookCollection(int size) {
+        BookCollection collection = new BookCollection("benchmark");
+        for (int i = 0; i < size; i++) {
+            collection.addBook(book(i));
+        }
+        return collection;
+    }
+
+    /**
+     * 创建基于数组的书籍集合
+     *
+     * @param size 书籍数量
+     * @return 书籍集合
+     */
+    public static ArrayBookCollection arrayCollection(int size) {
+        ArrayBookCollection collection = new ArrayBookCollection();
+        for (int i = 0; i < size; i++) {
+            collection.addBook(book(i));
+        }
+        return collection;
+    }
+
+    /**
+     * 创建基于链表的书籍集合
+     *
+     * @param size 书籍数量
+     * @return 书籍集合
+     */
+    public static LinkedBookCollection linkedCollection(int size) {
+        LinkedBookCollection collection = new LinkedBookCollection();
+        for (int i = 0; i < size; i++) {
+            collection.addBook(book(i));
+        }
+        return collection;
+    }
+}
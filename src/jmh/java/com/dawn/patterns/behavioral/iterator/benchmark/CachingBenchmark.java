@@ -0,0 +1,92 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.CachingAggregate;
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.MappedBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 重复查询的缓存效果
+ * 数据源为内存映射存储（每次遍历都要解码记录），对比每次重新过滤扫描、
+ * 缓存命中，以及清空缓存后未命中（扫描加存入缓存）的耗时
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachingBenchmark {
+
+    private static final Predicate<Book> FILTER = book -> book.getAuthor().equals("Joshua Bloch");
+
+    @Param({"100000"})
+    int size;
+
+    private Path file;
+    private MappedBookStore store;
+    private CachingAggregate<Book> cache;
+    private Aggregate<Book> cachedQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("books", ".bin");
+        MappedBookStore.write(file, BenchmarkData.arrayCollection(size));
+        store = MappedBookStore.open(file);
+        cache = new CachingAggregate<>(store);
+        cachedQuery = cache.query("author:Joshua Bloch", FILTER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void uncachedScan(Blackhole blackhole) {
+        consume(new FilterIterator<>(store.createIterator(), FILTER), blackhole);
+    }
+
+    @Benchmark
+    public void cachedHit(Blackhole blackhole) {
+        consume(cachedQuery.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void cachedMiss(Blackhole blackhole) {
+        cache.invalidateAll();
+        consume(cachedQuery.createIterator(), blackhole);
+    }
+
+    private static void consume(Iterator<Book> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
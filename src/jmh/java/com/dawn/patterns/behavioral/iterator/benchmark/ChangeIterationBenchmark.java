@@ -0,0 +1,90 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.ChangeEvent;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 索引器的一个处理周期：找出上次处理之后添加和移除的书籍
+ * 全量扫描与上一次的书籍集合求差，对比通过changesSince只读取变更
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChangeIterationBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"16"})
+    int changes;
+
+    private BookCollection collection;
+    private Set<Book> previousScan;
+    private long previousVersion;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = BenchmarkData.bookCollection(size);
+        previousScan = new HashSet<>();
+        Iterator<Book> iterator = collection.createIterator();
+        while (iterator.hasNext()) {
+            previousScan.add(iterator.next());
+        }
+        previousVersion = collection.getVersion();
+        for (int i = 0; i < changes / 2; i++) {
+            collection.addBook(new Book("New Title " + i, "New Author"));
+            collection.removeBook(collection.getBook(i));
+        }
+    }
+
+    @Benchmark
+    public void fullRescan(Blackhole bh) {
+        Set<Book> current = new HashSet<>();
+        Iterator<Book> iterator = collection.createIterator();
+        while (iterator.hasNext()) {
+            Book book = iterator.next();
+            current.add(book);
+            if (!previousScan.contains(book)) {
+                bh.consume(book);
+            }
+        }
+        for (Book book : previousScan) {
+            if (!current.contains(book)) {
+                bh.consume(book);
+            }
+        }
+    }
+
+    @Benchmark
+    public void changesSince(Blackhole bh) {
+        Iterator<ChangeEvent<Book>> iterator = collection.changesSince(previousVersion);
+        while (iterator.hasNext()) {
+            bh.consume(iterator.next());
+        }
+    }
+}
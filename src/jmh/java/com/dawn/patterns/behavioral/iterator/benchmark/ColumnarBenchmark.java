@@ -0,0 +1,81 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.ColumnarBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按作者过滤：BookCollection + FilterIterator 与 ColumnarBookCollection 的对比
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ColumnarBenchmark {
+
+    private static final String AUTHOR = "Martin Fowler";
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+    private BookCollection rowCollection;
+    private ColumnarBookCollection columnarCollection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rowCollection = BenchmarkData.bookCollection(size);
+        columnarCollection = new ColumnarBookCollection();
+        for (int i = 0; i < size; i++) {
+            columnarCollection.addBook(BenchmarkData.book(i));
+        }
+    }
+
+    @Benchmark
+    public void rowFilterByAuthor(Blackhole blackhole) {
+        Iterator<Book> iterator = new FilterIterator<>(rowCollection.createIterator(),
+                book -> book.getAuthor().equals(AUTHOR));
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void columnarFilterByAuthor(Blackhole blackhole) {
+        Iterator<Book> iterator = columnarCollection.createAuthorIterator(AUTHOR);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public int columnarCountByAuthor() {
+        return columnarCollection.countByAuthor(AUTHOR);
+    }
+
+    @Benchmark
+    public void columnarFullScan(Blackhole blackhole) {
+        columnarCollection.createIterator().forEachRemaining(blackhole::consume);
+    }
+}
@@ -0,0 +1,172 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.CompositeAggregate;
+import com.dawn.patterns.behavioral.iterator.advanced.ParallelAggregates;
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.LinkedBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片书目的整体遍历
+ * 先把各分片复制到一个列表再遍历/排序，与CompositeAggregate拼接、败者树归并、
+ * 基于PriorityQueue的堆归并以及按分片并行计数的对比；分片轮流使用三种集合实现
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class CompositeBenchmark {
+
+    private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitle);
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"16", "256"})
+    int shardCount;
+
+    private List<Aggregate<Book>> shards;
+    private CompositeAggregate<Book> concatenated;
+    private CompositeAggregate<Book> merged;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shards = new ArrayList<>(shardCount);
+        int perShard = size / shardCount;
+        for (int s = 0; s < shardCount; s++) {
+            List<Book> books = new ArrayList<>(perShard);
+            for (int i = 0; i < perShard; i++) {
+                books.add(BenchmarkData.book(s * perShard + i));
+            }
+            books.sort(BY_TITLE);
+            switch (s % 3) {
+                case 0:
+                    ArrayBookCollection array = new ArrayBookCollection();
+                    books.forEach(array::addBook);
+                    shards.add(array);
+                    break;
+                case 1:
+                    BookCollection collection = new BookCollection("shard-" + s);
+                    books.forEach(collection::addBook);
+                    shards.add(collection);
+                    break;
+                default:
+                    LinkedBookCollection linked = new LinkedBookCollection();
+                    books.forEach(linked::addBook);
+                    shards.add(linked);
+                    break;
+            }
+        }
+        concatenated = new CompositeAggregate<>(shards);
+        merged = new CompositeAggregate<>(shards, BY_TITLE);
+    }
+
+    @Benchmark
+    public void drainToList(Blackhole blackhole) {
+        for (Book book : drain()) {
+            blackhole.consume(book);
+        }
+    }
+
+    @Benchmark
+    public void compositeConcat(Blackhole blackhole) {
+        consume(concatenated.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void drainAndSort(Blackhole blackhole) {
+        List<Book> books = drain();
+        books.sort(BY_TITLE);
+        for (Book book : books) {
+            blackhole.consume(book);
+        }
+    }
+
+    @Benchmark
+    public void compositeMerge(Blackhole blackhole) {
+        consume(merged.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void heapMerge(Blackhole blackhole) {
+        PriorityQueue<Head> heap = new PriorityQueue<>(shards.size());
+        for (Aggregate<Book> shard : shards) {
+            Iterator<Book> iterator = shard.createIterator();
+            if (iterator.hasNext()) {
+                heap.add(new Head(iterator.next(), iterator));
+            }
+        }
+        while (!heap.isEmpty()) {
+            Head head = heap.poll();
+            blackhole.consume(head.book);
+            if (head.iterator.hasNext()) {
+                head.book = head.iterator.next();
+                heap.add(head);
+            }
+        }
+    }
+
+    @Benchmark
+    public long parallelCount() {
+        return ParallelAggregates.parallelReduce(concatenated, 0L, (count, book) -> count + 1, Long::sum);
+    }
+
+    private List<Book> drain() {
+        List<Book> books = new ArrayList<>();
+        for (Aggregate<Book> shard : shards) {
+            Iterator<Book> iterator = shard.createIterator();
+            while (iterator.hasNext()) {
+                books.add(iterator.next());
+            }
+        }
+        return books;
+    }
+
+    private static void consume(Iterator<Book> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    private static final class Head implements Comparable<Head> {
+        Book book;
+        final Iterator<Book> iterator;
+
+        Head(Book book, Iterator<Book> iterator) {
+            this.book = book;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return BY_TITLE.compare(book, other.book);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.ConcurrentBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读多写少场景：多个线程反复完整遍历，同时一个线程持续追加
+ * 对比外部加锁的BookCollection与快照遍历的ConcurrentBookCollection。
+ * 读取线程数可以用 -tg 覆盖，例如 -tg 16,1 表示16个读取线程、1个写入线程
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Group)
+public class ConcurrentScanBenchmark {
+
+    /**
+     * 写入线程每次追加之间消耗的CPU，用来模拟摄取线程的处理开销
+     */
+    private static final long WRITER_BACKOFF_TOKENS = 1000;
+
+    @Param({"100000"})
+    int size;
+
+    private BookCollection lockedCollection;
+    private ConcurrentBookCollection concurrentCollection;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        lockedCollection = BenchmarkData.bookCollection(size);
+        concurrentCollection = new ConcurrentBookCollection();
+        concurrentCollection.addAll(lockedCollection);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(3)
+    public void lockedScan(Blackhole blackhole) {
+        synchronized (lockedCollection) {
+            Iterator<Book> iterator = lockedCollection.createIterator();
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedAppend() {
+        Blackhole.consumeCPU(WRITER_BACKOFF_TOKENS);
+        synchronized (lockedCollection) {
+            lockedCollection.addBook(BenchmarkData.book(0));
+        }
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(3)
+    public void snapshotScan(Blackhole blackhole) {
+        Iterator<Book> iterator = concurrentCollection.createIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public void snapshotAppend() {
+        Blackhole.consumeCPU(WRITER_BACKOFF_TOKENS);
+        concurrentCollection.addBook(BenchmarkData.book(0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.DelimitedBookFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按作者过滤TSV书目文件
+ * 先逐行解析为Book并放入ArrayBookCollection再过滤，与DelimitedBookFile流式遍历、
+ * 在原始字节上下推作者条件的对比；配合 -prof gc 观察每次操作的分配量
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class DelimitedFileBenchmark {
+
+    private static final String AUTHOR = "Joshua Bloch";
+
+    @Param({"1000000"})
+    int size;
+
+    private Path file;
+    private DelimitedBookFile dump;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("books", ".tsv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < size; i++) {
+                Book book = BenchmarkData.book(i);
+                writer.write(book.getTitle());
+                writer.write('\t');
+                writer.write(book.getAuthor());
+                writer.write('\n');
+            }
+        }
+        dump = new DelimitedBookFile(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int parseThenFilter() throws IOException {
+        ArrayBookCollection collection = new ArrayBookCollection();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                collection.addBook(new Book(line.substring(0, tab), line.substring(tab + 1)));
+            }
+        }
+        return count(new FilterIterator<>(collection.createIterator(), book -> book.getAuthor().equals(AUTHOR)));
+    }
+
+    @Benchmark
+    public int streamThenFilter() {
+        return count(new FilterIterator<>(dump.createIterator(), book -> book.getAuthor().equals(AUTHOR)));
+    }
+
+    @Benchmark
+    public int pushdownFilter() {
+        return count(dump.filter(record -> record.authorEquals(AUTHOR)).createIterator());
+    }
+
+    private static int count(Iterator<Book> iterator) {
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+}
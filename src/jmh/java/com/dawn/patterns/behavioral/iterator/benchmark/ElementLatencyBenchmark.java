@@ -0,0 +1,86 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.advanced.ReverseIterator;
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单元素延迟基准测试
+ * 每次操作只调用一次 hasNext() + next()，迭代器耗尽后重新创建
+ *
+ * 迭代器的创建成本（以及 ReverseIterator 的整表复制）会按集合大小摊到每个元素上，
+ * 与 {@link TraversalBenchmark} 的吞吐量结果对照阅读。
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class ElementLatencyBenchmark {
+
+    @Param({"BookCollection", "ArrayBookCollection", "LinkedBookCollection", "FilterIterator", "ReverseIterator"})
+    String implementation;
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private Aggregate<Book> aggregate;
+    private Iterator<Book> iterator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (implementation) {
+            case "BookCollection":
+                aggregate = BenchmarkData.bookCollection(size);
+                break;
+            case "ArrayBookCollection":
+                aggregate = BenchmarkData.arrayCollection(size);
+                break;
+            case "LinkedBookCollection":
+                aggregate = BenchmarkData.linkedCollection(size);
+                break;
+            case "FilterIterator": {
+                Aggregate<Book> source = BenchmarkData.bookCollection(size);
+                aggregate = () -> new FilterIterator<>(source.createIterator(),
+                        book -> book.getAuthor().contains("Martin"));
+                break;
+            }
+            case "ReverseIterator": {
+                Aggregate<Book> source = BenchmarkData.bookCollection(size);
+                aggregate = () -> new ReverseIterator<>(source.createIterator());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("未知实现: " + implementation);
+        }
+        iterator = aggregate.createIterator();
+    }
+
+    @Benchmark
+    public Book nextElement() {
+        if (!iterator.hasNext()) {
+            iterator = aggregate.createIterator();
+        }
+        return iterator.next();
+    }
+}
@@ -0,0 +1,117 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.SegmentedBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数组集合的装载与遍历
+ * 默认容量逐个添加（反复翻倍复制）、按容量构造、按大小提示批量addAll与分段数组逐个添加的对比，
+ * 以及连续数组与分段数组逐个遍历、forEachRemaining整段遍历的吞吐量
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class GrowthBenchmark {
+
+    @Param({"10000000"})
+    int size;
+
+    private Book[] books;
+    private ArrayBookCollection source;
+    private SegmentedBookCollection segmentedSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = new Book[size];
+        source = new ArrayBookCollection(size);
+        segmentedSource = new SegmentedBookCollection();
+        for (int i = 0; i < size; i++) {
+            books[i] = BenchmarkData.book(i);
+            source.addBook(books[i]);
+            segmentedSource.addBook(books[i]);
+        }
+    }
+
+    @Benchmark
+    public ArrayBookCollection addDefault() {
+        ArrayBookCollection collection = new ArrayBookCollection();
+        for (Book book : books) {
+            collection.addBook(book);
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public ArrayBookCollection addPresized() {
+        ArrayBookCollection collection = new ArrayBookCollection(size);
+        for (Book book : books) {
+            collection.addBook(book);
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public ArrayBookCollection addAllWithHint() {
+        ArrayBookCollection collection = new ArrayBookCollection();
+        collection.addAll(source.createSplittableIterator());
+        return collection;
+    }
+
+    @Benchmark
+    public SegmentedBookCollection addSegmented() {
+        SegmentedBookCollection collection = new SegmentedBookCollection();
+        for (Book book : books) {
+            collection.addBook(book);
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public void iterateArray(Blackhole blackhole) {
+        consume(source.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void iterateSegmented(Blackhole blackhole) {
+        consume(segmentedSource.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void forEachArray(Blackhole blackhole) {
+        source.createIterator().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void forEachSegmented(Blackhole blackhole) {
+        segmentedSource.createIterator().forEachRemaining(blackhole::consume);
+    }
+
+    private static void consume(Iterator<Book> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.BookQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookCollection.findBooks：无索引顺序扫描与使用索引的对比
+ * 书名各不相同，作者共1000位，查询结果只占集合的一小部分；
+ * 另测有索引时移除再加回一本书的开销，其中"Boo"等三元组的倒排表包含全部书籍
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class IndexedQueryBenchmark {
+
+    private static final BookQuery AUTHOR_EQUALS = BookQuery.authorEquals("Author-42");
+    private static final BookQuery TITLE_PREFIX = BookQuery.titleStartsWith("Book-4242");
+    private static final BookQuery TITLE_CONTAINS = BookQuery.titleContains("k-4242");
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    private BookCollection scanned;
+    private BookCollection indexed;
+    private Book[] books;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scanned = new BookCollection("scanned");
+        indexed = new BookCollection("indexed");
+        books = new Book[size];
+        for (BookCollection.IndexType type : BookCollection.IndexType.values()) {
+            indexed.createIndex(type);
+        }
+        for (int i = 0; i < size; i++) {
+            Book book = new Book("Book-" + i, "Author-" + (i % 1000));
+            books[i] = book;
+            scanned.addBook(book);
+            indexed.addBook(book);
+        }
+    }
+
+    @Benchmark
+    public void scanAuthorEquals(Blackhole blackhole) {
+        drain(scanned, AUTHOR_EQUALS, blackhole);
+    }
+
+    @Benchmark
+    public void indexedAuthorEquals(Blackhole blackhole) {
+        drain(indexed, AUTHOR_EQUALS, blackhole);
+    }
+
+    @Benchmark
+    public void scanTitlePrefix(Blackhole blackhole) {
+        drain(scanned, TITLE_PREFIX, blackhole);
+    }
+
+    @Benchmark
+    public void indexedTitlePrefix(Blackhole blackhole) {
+        drain(indexed, TITLE_PREFIX, blackhole);
+    }
+
+    @Benchmark
+    public void scanTitleContains(Blackhole blackhole) {
+        drain(scanned, TITLE_CONTAINS, blackhole);
+    }
+
+    @Benchmark
+    public void indexedTitleContains(Blackhole blackhole) {
+        drain(indexed, TITLE_CONTAINS, blackhole);
+    }
+
+    @Benchmark
+    public boolean indexedRemoveAndAdd() {
+        Book book = books[next];
+        next = next + 1 == books.length ? 0 : next + 1;
+        boolean removed = indexed.removeBook(book);
+        indexed.addBook(book);
+        return removed;
+    }
+
+    private static void drain(BookCollection collection, BookQuery query, Blackhole blackhole) {
+        Iterator<Book> iterator = collection.findBooks(query).createIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.advanced.ReverseIterator;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.LinkedBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 小集合反复扫描时的迭代器分配
+ * 每次操作扫描SCANS个小集合，新建迭代器与从线程本地池取出/归还、重置复用过滤和反向迭代器对比。
+ * 扫描放在不内联的方法中，迭代器像真实请求路径一样逃逸，逃逸分析无法消除分配；
+ * 配合 -prof gc 查看 gc.alloc.rate.norm
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class IteratorPoolBenchmark {
+
+    private static final int SCANS = 16;
+
+    @Param({"16", "256"})
+    int size;
+
+    private BookCollection bookCollection;
+    private ArrayBookCollection arrayCollection;
+    private LinkedBookCollection linkedCollection;
+    private Predicate<Book> filter;
+    private FilterIterator<Book> reusableFilter;
+    private ReverseIterator<Book> reusableReverse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bookCollection = BenchmarkData.bookCollection(size);
+        arrayCollection = BenchmarkData.arrayCollection(size);
+        linkedCollection = BenchmarkData.linkedCollection(size);
+        filter = book -> (book.getTitle().length() & 1) == 0;
+        reusableFilter = new FilterIterator<>(arrayCollection.createIterator(), filter);
+        reusableReverse = new ReverseIterator<>(arrayCollection);
+    }
+
+    @Benchmark
+    public long listNew() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            total += count(bookCollection.createIterator());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long listPooled() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            Iterator<Book> iterator = bookCollection.acquireIterator();
+            total += count(iterator);
+            bookCollection.releaseIterator(iterator);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long arrayNew() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            total += count(arrayCollection.createIterator());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long arrayPooled() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            Iterator<Book> iterator = arrayCollection.acquireIterator();
+            total += count(iterator);
+            arrayCollection.releaseIterator(iterator);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long linkedNew() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            total += count(linkedCollection.createIterator());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long linkedPooled() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            Iterator<Book> iterator = linkedCollection.acquireIterator();
+            total += count(iterator);
+            linkedCollection.releaseIterator(iterator);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long filterNew() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            total += count(new FilterIterator<>(arrayCollection.createIterator(), filter));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long filterReused() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            Iterator<Book> source = arrayCollection.acquireIterator();
+            reusableFilter.reset(source);
+            total += count(reusableFilter);
+            arrayCollection.releaseIterator(source);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long reverseCopy() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            total += count(new ReverseIterator<>(arrayCollection.createIterator()));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long reverseReused() {
+        long total = 0;
+        for (int i = 0; i < SCANS; i++) {
+            reusableReverse.reset(arrayCollection);
+            total += count(reusableReverse);
+        }
+        return total;
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static long count(Iterator<Book> iterator) {
+        long count = 0;
+        while (iterator.hasNext()) {
+            if (iterator.next() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,108 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.LinkedBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LinkedBookCollection 批量加载曲线
+ * legacyLoad 复现了改为展开链表之前"每次从头走到尾再追加"的实现，
+ * 与当前基于尾指针的 addBook 对比加载 N 本书的耗时
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LinkedLoadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LegacyState {
+        /**
+         * 旧实现是 O(N²)，更大的规模单次加载就要数分钟
+         */
+        @Param({"1000", "10000", "50000"})
+        int size;
+    }
+
+    @State(Scope.Benchmark)
+    public static class CurrentState {
+        @Param({"1000", "10000", "50000", "1000000", "10000000"})
+        int size;
+    }
+
+    @State(Scope.Benchmark)
+    public static class SkipState {
+        @Param({"100000", "10000000"})
+        int size;
+
+        LinkedBookCollection collection;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            collection = BenchmarkData.linkedCollection(size);
+        }
+    }
+
+    @Benchmark
+    public LegacyNode legacyLoad(LegacyState state) {
+        LegacyNode head = null;
+        for (int i = 0; i < state.size; i++) {
+            LegacyNode newNode = new LegacyNode(BenchmarkData.book(i));
+            if (head == null) {
+                head = newNode;
+            } else {
+                LegacyNode current = head;
+                while (current.next != null) {
+                    current = current.next;
+                }
+                current.next = newNode;
+            }
+        }
+        return head;
+    }
+
+    @Benchmark
+    public LinkedBookCollection currentLoad(CurrentState state) {
+        return BenchmarkData.linkedCollection(state.size);
+    }
+
+    /**
+     * 定位到集合中间位置：整节点跳过
+     */
+    @Benchmark
+    public Book skipToMiddle(SkipState state) {
+        Iterator<Book> iterator = state.collection.createIterator();
+        iterator.skip(state.size / 2);
+        return iterator.next();
+    }
+
+    /**
+     * 旧版单元素链表节点
+     */
+    static final class LegacyNode {
+        final Book book;
+        LegacyNode next;
+
+        LegacyNode(Book book) {
+            this.book = book;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.MappedBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存映射书籍存储：打开耗时、遍历吞吐量，以及与加载到ArrayBookCollection的对比
+ * 配合 -prof gc 观察每次操作的分配量
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class MappedStoreBenchmark {
+
+    private static final String AUTHOR = "Martin Fowler";
+
+    @Param({"1000000"})
+    int size;
+
+    private Path file;
+    private MappedBookStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("books", ".bin");
+        MappedBookStore.write(file, BenchmarkData.arrayCollection(size));
+        store = MappedBookStore.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long openStore() throws IOException {
+        try (MappedBookStore opened = MappedBookStore.open(file)) {
+            return opened.getSize();
+        }
+    }
+
+    @Benchmark
+    public ArrayBookCollection loadIntoArray() {
+        ArrayBookCollection collection = new ArrayBookCollection();
+        Iterator<Book> iterator = store.createIterator();
+        while (iterator.hasNext()) {
+            collection.addBook(iterator.next());
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public void iterateBooks(Blackhole blackhole) {
+        store.createIterator().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public int countByAuthorWithCursor() {
+        int[] count = {0};
+        store.forEachRecord(record -> {
+            if (record.authorEquals(AUTHOR)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,93 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.metrics.InstrumentedAggregate;
+import com.dawn.patterns.behavioral.iterator.metrics.IteratorMetrics;
+import com.dawn.patterns.behavioral.iterator.metrics.SimpleMetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 遍历统计的开销
+ * plain为原始聚合；disabled为统计关闭时经过IteratorMetrics.instrument的聚合（即原对象），
+ * 应与plain一致；enabled为显式统计的聚合，filter系列对比过滤条件计数的开销
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private ArrayBookCollection plain;
+    private Aggregate<Book> disabled;
+    private Aggregate<Book> enabled;
+    private Predicate<Book> filter;
+    private Predicate<Book> countingFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        plain = BenchmarkData.arrayCollection(size);
+        disabled = IteratorMetrics.instrument(plain, "plain");
+        SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+        enabled = new InstrumentedAggregate<>(plain, "plain", registry);
+        filter = book -> (book.getTitle().hashCode() & 1) == 0;
+        countingFilter = IteratorMetrics.countingFilter(filter, "plain.filter", registry);
+    }
+
+    @Benchmark
+    public void plain(Blackhole blackhole) {
+        consume(plain.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void disabled(Blackhole blackhole) {
+        consume(disabled.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void enabled(Blackhole blackhole) {
+        consume(enabled.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void filterPlain(Blackhole blackhole) {
+        consume(new FilterIterator<>(plain.createIterator(), filter), blackhole);
+    }
+
+    @Benchmark
+    public void filterCounting(Blackhole blackhole) {
+        consume(new FilterIterator<>(plain.createIterator(), countingFilter), blackhole);
+    }
+
+    private static void consume(Iterator<Book> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.LinkedBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 并发修改检查的开销
+ * 带修改次数检查的集合迭代器与相同结构、不做任何检查的基线迭代器对比，
+ * 基线迭代器即加入检查之前ArrayBookIterator/BookIterator/LinkedBookIterator的遍历方式
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ModCountBenchmark {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    private ArrayBookCollection arrayCollection;
+    private BookCollection bookCollection;
+    private LinkedBookCollection linkedCollection;
+    private Book[] uncheckedArray;
+    private List<Book> uncheckedList;
+    private UncheckedNode uncheckedHead;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        arrayCollection = BenchmarkData.arrayCollection(size);
+        bookCollection = BenchmarkData.bookCollection(size);
+        linkedCollection = BenchmarkData.linkedCollection(size);
+        uncheckedArray = new Book[size];
+        uncheckedList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            uncheckedArray[i] = BenchmarkData.book(i);
+            uncheckedList.add(BenchmarkData.book(i));
+        }
+        uncheckedHead = new UncheckedNode();
+        UncheckedNode tail = uncheckedHead;
+        for (int i = 0; i < size; i++) {
+            if (tail.count == UncheckedNode.CAPACITY) {
+                tail.next = new UncheckedNode();
+                tail = tail.next;
+            }
+            tail.books[tail.count++] = BenchmarkData.book(i);
+        }
+    }
+
+    @Benchmark
+    public void arrayChecked(Blackhole blackhole) {
+        Iterator<Book> iterator = arrayCollection.createIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void arrayUnchecked(Blackhole blackhole) {
+        Iterator<Book> iterator = new UncheckedArrayIterator(uncheckedArray, size);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void arrayForEachChecked(Blackhole blackhole) {
+        arrayCollection.createIterator().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void arrayForEachUnchecked(Blackhole blackhole) {
+        new UncheckedArrayIterator(uncheckedArray, size).forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void listChecked(Blackhole blackhole) {
+        Iterator<Book> iterator = bookCollection.createIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void listUnchecked(Blackhole blackhole) {
+        Iterator<Book> iterator = new UncheckedListIterator(uncheckedList);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void linkedChecked(Blackhole blackhole) {
+        Iterator<Book> iterator = linkedCollection.createIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void linkedUnchecked(Blackhole blackhole) {
+        Iterator<Book> iterator = new UncheckedLinkedIterator(uncheckedHead);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    /**
+     * 不检查修改的数组迭代器
+     */
+    private static final class UncheckedArrayIterator implements Iterator<Book> {
+        private final Book[] books;
+        private final int size;
+        private int currentIndex;
+
+        UncheckedArrayIterator(Book[] books, int size) {
+            this.books = books;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < size;
+        }
+
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            return books[currentIndex++];
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            for (int i = currentIndex; i < size; i++) {
+                action.accept(books[i]);
+            }
+            currentIndex = size;
+        }
+    }
+
+    /**
+     * 不检查修改的列表迭代器
+     */
+    private static final class UncheckedListIterator implements Iterator<Book> {
+        private final List<Book> books;
+        private int currentIndex;
+
+        UncheckedListIterator(List<Book> books) {
+            this.books = books;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < books.size();
+        }
+
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            return books.get(currentIndex++);
+        }
+    }
+
+    /**
+     * 与LinkedBookCollection.Node结构相同的展开链表节点
+     */
+    private static final class UncheckedNode {
+        static final int CAPACITY = 16;
+
+        final Book[] books = new Book[CAPACITY];
+        int count;
+        UncheckedNode next;
+    }
+
+    /**
+     * 不检查修改的展开链表迭代器
+     */
+    private static final class UncheckedLinkedIterator implements Iterator<Book> {
+        private UncheckedNode current;
+        private int indexInNode;
+
+        UncheckedLinkedIterator(UncheckedNode head) {
+            this.current = head;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null && (indexInNode < current.count || current.next != null);
+        }
+
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            if (indexInNode == current.count && current.next != null) {
+                current = current.next;
+                indexInNode = 0;
+            }
+            return current.books[indexInNode++];
+        }
+    }
+}
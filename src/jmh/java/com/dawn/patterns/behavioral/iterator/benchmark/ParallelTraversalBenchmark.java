@@ -0,0 +1,73 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.ParallelAggregates;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 顺序遍历与 ParallelAggregates 并行归约的对比基准测试
+ * 加速比取决于机器核数，可用 -Djava.util.concurrent.ForkJoinPool.common.parallelism 调整
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelTraversalBenchmark {
+
+    @Param({"100000", "10000000"})
+    int size;
+
+    private ArrayBookCollection arrayCollection;
+    private BookCollection bookCollection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        arrayCollection = BenchmarkData.arrayCollection(size);
+        bookCollection = BenchmarkData.bookCollection(size);
+    }
+
+    @Benchmark
+    public long sequentialCount() {
+        Iterator<Book> iterator = arrayCollection.createIterator();
+        long count = 0;
+        while (iterator.hasNext()) {
+            if (iterator.next().getAuthor().contains("Martin")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long parallelCountArray() {
+        return ParallelAggregates.parallelReduce(arrayCollection, 0L,
+                (count, book) -> book.getAuthor().contains("Martin") ? count + 1 : count, Long::sum);
+    }
+
+    @Benchmark
+    public long parallelCountArrayList() {
+        return ParallelAggregates.parallelReduce(bookCollection, 0L,
+                (count, book) -> book.getAuthor().contains("Martin") ? count + 1 : count, Long::sum);
+    }
+}
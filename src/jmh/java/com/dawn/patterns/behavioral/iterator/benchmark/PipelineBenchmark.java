@@ -0,0 +1,86 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.advanced.IteratorPipeline;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 嵌套 FilterIterator 与 IteratorPipeline 的对比基准测试
+ * 查询形如"作者为 X、书名满足某条件的前 N 本书"；条件故意按"昂贵且宽松"在前的顺序书写，
+ * 用于观察流水线运行时重排条件的效果
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"20", "1000000"})
+    int limit;
+
+    private BookCollection collection;
+
+    /**
+     * 宽松且昂贵：书名转小写后不包含 "book-1"（约九成通过）
+     */
+    private final Predicate<Book> titleFilter = book -> !book.getTitle().toLowerCase().contains("book-1");
+
+    /**
+     * 严格且便宜：作者恰好是 GoF（约 1/8 通过）
+     */
+    private final Predicate<Book> authorFilter = book -> book.getAuthor() == "GoF";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = BenchmarkData.bookCollection(size);
+    }
+
+    @Benchmark
+    public void nestedFilterIterators(Blackhole blackhole) {
+        Iterator<Book> iterator = new FilterIterator<>(
+                new FilterIterator<>(collection.createIterator(), titleFilter), authorFilter);
+        int emitted = 0;
+        while (emitted < limit && iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+            emitted++;
+        }
+    }
+
+    @Benchmark
+    public void fusedPipeline(Blackhole blackhole) {
+        Iterator<Book> iterator = IteratorPipeline.from(collection)
+                .filter(titleFilter)
+                .filter(authorFilter)
+                .limit(limit)
+                .iterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
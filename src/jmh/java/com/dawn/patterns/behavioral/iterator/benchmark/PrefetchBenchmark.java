@@ -0,0 +1,97 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.PrefetchingAggregate;
+import com.dawn.patterns.behavioral.iterator.advanced.PrefetchingIterator;
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 慢速数据源上的同步遍历与预取遍历对比
+ * 数据源每个元素等待sourceLatencyMicros微秒，调用方处理每个元素等待consumerWorkMicros微秒，
+ * 同步遍历的耗时约为两者之和，预取遍历约为两者中的较大者
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefetchBenchmark {
+
+    @Param({"200"})
+    int size;
+
+    @Param({"200"})
+    long sourceLatencyMicros;
+
+    @Param({"200"})
+    long consumerWorkMicros;
+
+    @Param({"1", "16"})
+    int bufferSize;
+
+    private Aggregate<Book> slowSource;
+    private PrefetchingAggregate<Book> prefetching;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrayBookCollection books = BenchmarkData.arrayCollection(size);
+        long latencyNanos = TimeUnit.MICROSECONDS.toNanos(sourceLatencyMicros);
+        slowSource = () -> new Iterator<Book>() {
+            private final Iterator<Book> iterator = books.createIterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Book next() {
+                LockSupport.parkNanos(latencyNanos);
+                return iterator.next();
+            }
+        };
+        prefetching = new PrefetchingAggregate<>(slowSource, bufferSize);
+    }
+
+    @Benchmark
+    public void synchronous(Blackhole bh) {
+        consume(slowSource.createIterator(), bh);
+    }
+
+    @Benchmark
+    public void prefetching(Blackhole bh) {
+        try (PrefetchingIterator<Book> iterator = prefetching.createIterator()) {
+            consume(iterator, bh);
+        }
+    }
+
+    private void consume(Iterator<Book> iterator, Blackhole bh) {
+        long workNanos = TimeUnit.MICROSECONDS.toNanos(consumerWorkMicros);
+        while (iterator.hasNext()) {
+            bh.consume(iterator.next());
+            LockSupport.parkNanos(workNanos);
+        }
+    }
+}
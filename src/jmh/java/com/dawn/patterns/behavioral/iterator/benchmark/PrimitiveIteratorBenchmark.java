@@ -0,0 +1,87 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.advanced.IntFilterIterator;
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.IntAggregate;
+import com.dawn.patterns.behavioral.iterator.core.IntIterator;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 装箱迭代器与原始类型迭代器的对比基准测试
+ * 配合 -prof gc 查看每次扫描的分配量
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveIteratorBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    private IntAggregate primitive;
+    private Aggregate<Integer> boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 取值避开 Integer 缓存区间，确保装箱版本真实分配
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 1000 + i;
+        }
+        primitive = IntAggregate.of(values);
+        boxed = () -> new Iterator<Integer>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < values.length;
+            }
+
+            @Override
+            public Integer next() {
+                return values[currentIndex++];
+            }
+        };
+    }
+
+    @Benchmark
+    public long boxedFilteredSum() {
+        Iterator<Integer> iterator = new FilterIterator<>(boxed.createIterator(), value -> (value & 1) == 0);
+        long sum = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long primitiveFilteredSum() {
+        IntIterator iterator = new IntFilterIterator(primitive.createIntIterator(), value -> (value & 1) == 0);
+        long sum = 0;
+        while (iterator.hasNext()) {
+            sum += iterator.nextInt();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,140 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.AggregatePublisher;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把聚合发布给一个按批次请求的订阅者
+ * AggregatePublisher的逐个读取与批量读取，对比手写的SubmissionPublisher桥接
+ * （一个生产线程逐个submit，缓冲区满时阻塞）
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublisherBenchmark {
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"256"})
+    int requestSize;
+
+    private ArrayBookCollection collection;
+    private ExecutorService executor;
+    private AggregatePublisher<Book> elementPublisher;
+    private AggregatePublisher<Book> batchPublisher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = BenchmarkData.arrayCollection(size);
+        executor = Executors.newFixedThreadPool(2);
+        elementPublisher = new AggregatePublisher<>(collection, executor);
+        batchPublisher = new AggregatePublisher<>(collection, executor, Book[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public long aggregatePublisher(Blackhole bh) throws InterruptedException {
+        return consume(elementPublisher, bh);
+    }
+
+    @Benchmark
+    public long aggregatePublisherBatch(Blackhole bh) throws InterruptedException {
+        return consume(batchPublisher, bh);
+    }
+
+    @Benchmark
+    public long submissionPublisher(Blackhole bh) throws InterruptedException {
+        CountingSubscriber subscriber = new CountingSubscriber(requestSize, bh);
+        // 关闭发布者即发出完成信号，之后再等待订阅者收完
+        try (SubmissionPublisher<Book> publisher = new SubmissionPublisher<>(executor, requestSize)) {
+            publisher.subscribe(subscriber);
+            Iterator<Book> iterator = collection.createIterator();
+            while (iterator.hasNext()) {
+                publisher.submit(iterator.next());
+            }
+        }
+        subscriber.done.await();
+        return subscriber.received;
+    }
+
+    private long consume(Flow.Publisher<Book> publisher, Blackhole bh) throws InterruptedException {
+        CountingSubscriber subscriber = new CountingSubscriber(requestSize, bh);
+        publisher.subscribe(subscriber);
+        subscriber.done.await();
+        return subscriber.received;
+    }
+
+    /**
+     * 每收到requestSize个元素再请求requestSize个
+     */
+    private static final class CountingSubscriber implements Flow.Subscriber<Book> {
+        private final int requestSize;
+        private final Blackhole bh;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private long received;
+
+        CountingSubscriber(int requestSize, Blackhole bh) {
+            this.requestSize = requestSize;
+            this.bh = bh;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(requestSize);
+        }
+
+        @Override
+        public void onNext(Book book) {
+            bh.consume(book);
+            if (++received % requestSize == 0) {
+                subscription.request(requestSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 移除与包含查询
+ * BookCollection的位置索引与原先基于ArrayList.remove(Object)/contains的线性扫描对比；
+ * 每次操作移除BATCH本随机书籍再追加回去，集合大小保持不变；
+ * interleaved系列在每次移除之后按位置读取一本书，覆盖移除与读取交替进行的情况
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RemovalBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    private BookCollection collection;
+    private List<Book> list;
+    private Book[] targets;
+    private Book[] missing;
+    private int[] probes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = new BookCollection("benchmark");
+        list = new ArrayList<>(size);
+        Book[] books = new Book[size];
+        for (int i = 0; i < size; i++) {
+            books[i] = new Book("Title-" + i, "Author-" + (i & 1023));
+            collection.addBook(books[i]);
+            list.add(books[i]);
+        }
+        Random random = new Random(42);
+        targets = new Book[BATCH];
+        missing = new Book[BATCH];
+        probes = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            targets[i] = books[random.nextInt(size)];
+            missing[i] = new Book("Missing-" + i, "Nobody");
+            probes[i] = random.nextInt(size - BATCH);
+        }
+    }
+
+    @Benchmark
+    public int collectionRemoveAndAdd() {
+        int removed = 0;
+        for (Book book : targets) {
+            if (collection.removeBook(book)) {
+                removed++;
+            }
+        }
+        for (Book book : targets) {
+            collection.addBook(book);
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public int listRemoveAndAdd() {
+        int removed = 0;
+        for (Book book : targets) {
+            if (list.remove(book)) {
+                removed++;
+            }
+        }
+        list.addAll(Arrays.asList(targets));
+        return removed;
+    }
+
+    @Benchmark
+    public void collectionInterleavedRemoveAndGet(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(collection.removeBook(targets[i]));
+            blackhole.consume(collection.getBook(probes[i]));
+        }
+        for (Book book : targets) {
+            collection.addBook(book);
+        }
+    }
+
+    @Benchmark
+    public void listInterleavedRemoveAndGet(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(list.remove(targets[i]));
+            blackhole.consume(list.get(probes[i]));
+        }
+        list.addAll(Arrays.asList(targets));
+    }
+
+    @Benchmark
+    public int collectionContainsMissing() {
+        int found = 0;
+        for (Book book : missing) {
+            if (collection.contains(book)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int listContainsMissing() {
+        int found = 0;
+        for (Book book : missing) {
+            if (list.contains(book)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,96 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.BookSnapshot;
+import com.dawn.patterns.behavioral.iterator.examples.MappedBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重启时恢复书目的耗时
+ * 从内存映射存储逐本addBook（数组从默认容量反复扩容）与从快照文件预分配加载对比，
+ * 以及快照的写出耗时；配合 -prof gc 观察每次操作的分配量
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SnapshotLoadBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    private ArrayBookCollection source;
+    private Path storeFile;
+    private Path snapshotFile;
+    private Path outputFile;
+    private MappedBookStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = BenchmarkData.arrayCollection(size);
+        storeFile = Files.createTempFile("books", ".bin");
+        snapshotFile = Files.createTempFile("books", ".snapshot");
+        outputFile = Files.createTempFile("books-out", ".snapshot");
+        MappedBookStore.write(storeFile, source);
+        BookSnapshot.write(snapshotFile, source);
+        store = MappedBookStore.open(storeFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(storeFile);
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Benchmark
+    public ArrayBookCollection addOneByOne() {
+        ArrayBookCollection collection = new ArrayBookCollection();
+        Iterator<Book> iterator = store.createIterator();
+        while (iterator.hasNext()) {
+            collection.addBook(iterator.next());
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public ArrayBookCollection snapshotLoadArray() throws IOException {
+        return BookSnapshot.loadArray(snapshotFile);
+    }
+
+    @Benchmark
+    public BookCollection snapshotLoadCollection() throws IOException {
+        return BookSnapshot.load(snapshotFile, "restored");
+    }
+
+    @Benchmark
+    public long snapshotWrite() throws IOException {
+        return BookSnapshot.write(outputFile, source);
+    }
+}
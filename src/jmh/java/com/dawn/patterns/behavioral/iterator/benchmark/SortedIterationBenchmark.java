@@ -0,0 +1,118 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.ExternalSortIterator;
+import com.dawn.patterns.behavioral.iterator.advanced.TopKIterator;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按书名排序的遍历
+ * 前K本：复制到列表后全量排序 vs TopKIterator；
+ * 全量排序：内存排序 vs ExternalSortIterator（内存预算为集合的1/8，有序段写入临时文件）
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class SortedIterationBenchmark {
+
+    private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitle);
+
+    private static final ExternalSortIterator.Codec<Book> CODEC = new ExternalSortIterator.Codec<Book>() {
+        @Override
+        public void write(DataOutput out, Book book) throws IOException {
+            out.writeUTF(book.getTitle());
+            out.writeUTF(book.getAuthor());
+        }
+
+        @Override
+        public Book read(DataInput in) throws IOException {
+            return new Book(in.readUTF(), in.readUTF());
+        }
+    };
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"50"})
+    int k;
+
+    private ArrayBookCollection collection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = BenchmarkData.arrayCollection(size);
+    }
+
+    @Benchmark
+    public void topKBySortingCopy(Blackhole bh) {
+        List<Book> books = copy();
+        books.sort(BY_TITLE);
+        for (Book book : books.subList(0, Math.min(k, books.size()))) {
+            bh.consume(book);
+        }
+    }
+
+    @Benchmark
+    public void topKIterator(Blackhole bh) {
+        Iterator<Book> iterator = TopKIterator.of(collection, k, BY_TITLE);
+        while (iterator.hasNext()) {
+            bh.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void fullSortInMemory(Blackhole bh) {
+        List<Book> books = copy();
+        books.sort(BY_TITLE);
+        for (Book book : books) {
+            bh.consume(book);
+        }
+    }
+
+    @Benchmark
+    public void fullSortExternal(Blackhole bh) throws IOException {
+        try (ExternalSortIterator<Book> iterator =
+                     new ExternalSortIterator<>(collection.createIterator(), BY_TITLE, CODEC, size / 8)) {
+            while (iterator.hasNext()) {
+                bh.consume(iterator.next());
+            }
+        }
+    }
+
+    private List<Book> copy() {
+        List<Book> books = new ArrayList<>(collection.getSize());
+        Iterator<Book> iterator = collection.createIterator();
+        while (iterator.hasNext()) {
+            books.add(iterator.next());
+        }
+        return books;
+    }
+}
@@ -0,0 +1,168 @@
+package com.dawn.patterns.behavioral.iterator.benchmark;
+
+import com.dawn.patterns.behavioral.iterator.advanced.FilterIterator;
+import com.dawn.patterns.behavioral.iterator.advanced.ReverseIterator;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.Book;
+import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.LinkedBookCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 完整遍历吞吐量基准测试
+ * 每次操作从 createIterator() 开始把整个集合遍历一遍
+ *
+ * 运行方式（分配速率加 -prof gc）：
+ * <pre>
+ * mvn -Pbenchmark package
+ * java -jar target/benchmarks.jar TraversalBenchmark -prof gc
+ * </pre>
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TraversalBenchmark {
+
+    /**
+     * nextBatch 每批获取的元素数量
+     */
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * 过滤条件：作者包含 "Martin"，样本数据中约 1/4 命中
+     */
+    private static final Predicate<Book> MARTIN_FILTER = book -> book.getAuthor().contains("Martin");
+
+    @State(Scope.Benchmark)
+    public static class ArrayListState {
+        @Param({"10", "1000", "100000", "1000000", "10000000"})
+        int size;
+
+        BookCollection collection;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            collection = BenchmarkData.bookCollection(size);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ArrayState {
+        @Param({"10", "1000", "100000", "1000000", "10000000"})
+        int size;
+
+        ArrayBookCollection collection;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            collection = BenchmarkData.arrayCollection(size);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LinkedState {
+        @Param({"10", "1000", "100000", "1000000", "10000000"})
+        int size;
+
+        LinkedBookCollection collection;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            collection = BenchmarkData.linkedCollection(size);
+        }
+    }
+
+    @Benchmark
+    public void bookIterator(ArrayListState state, Blackhole blackhole) {
+        drain(state.collection.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void arrayBookIterator(ArrayState state, Blackhole blackhole) {
+        drain(state.collection.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void linkedBookIterator(LinkedState state, Blackhole blackhole) {
+        drain(state.collection.createIterator(), blackhole);
+    }
+
+    @Benchmark
+    public void filterIterator(ArrayListState state, Blackhole blackhole) {
+        drain(new FilterIterator<>(state.collection.createIterator(), MARTIN_FILTER), blackhole);
+    }
+
+    @Benchmark
+    public void reverseIterator(ArrayListState state, Blackhole blackhole) {
+        drain(new ReverseIterator<>(state.collection.createIterator()), blackhole);
+    }
+
+    @Benchmark
+    public void reverseIteratorIndexed(ArrayListState state, Blackhole blackhole) {
+        drain(ReverseIterator.of(state.collection), blackhole);
+    }
+
+    @Benchmark
+    public void reverseIteratorChunkedLinked(LinkedState state, Blackhole blackhole) {
+        drain(ReverseIterator.of(state.collection), blackhole);
+    }
+
+    @Benchmark
+    public void bookIteratorForEach(ArrayListState state, Blackhole blackhole) {
+        state.collection.createIterator().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void arrayBookIteratorForEach(ArrayState state, Blackhole blackhole) {
+        state.collection.createIterator().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void linkedBookIteratorForEach(LinkedState state, Blackhole blackhole) {
+        state.collection.createIterator().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filterIteratorForEach(ArrayListState state, Blackhole blackhole) {
+        new FilterIterator<>(state.collection.createIterator(), MARTIN_FILTER).forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void arrayBookIteratorBatch(ArrayState state, Blackhole blackhole) {
+        Iterator<Book> iterator = state.collection.createIterator();
+        Book[] batch = new Book[BATCH_SIZE];
+        int count;
+        while ((count = iterator.nextBatch(batch, 0, BATCH_SIZE)) > 0) {
+            for (int i = 0; i < count; i++) {
+                blackhole.consume(batch[i]);
+            }
+        }
+    }
+
+    private static void drain(Iterator<Book> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
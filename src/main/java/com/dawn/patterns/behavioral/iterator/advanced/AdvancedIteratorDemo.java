@@ -1,8 +1,31 @@
 package com.dawn.patterns.behavioral.iterator.advanced;
 
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.ChangeEvent;
+import com.dawn.patterns.behavioral.iterator.core.IntAggregate;
+import com.dawn.patterns.behavioral.iterator.core.IntIterator;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.examples.ArrayBookCollection;
 import com.dawn.patterns.behavioral.iterator.examples.Book;
 import com.dawn.patterns.behavioral.iterator.examples.BookCollection;
+import com.dawn.patterns.behavioral.iterator.examples.BookQuery;
+import com.dawn.patterns.behavioral.iterator.examples.LinkedBookCollection;
+import com.dawn.patterns.behavioral.iterator.metrics.InstrumentedAggregate;
+import com.dawn.patterns.behavioral.iterator.metrics.InstrumentedIterator;
+import com.dawn.patterns.behavioral.iterator.metrics.IteratorMetrics;
+import com.dawn.patterns.behavioral.iterator.metrics.SimpleMetricsRegistry;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 /**
@@ -27,6 +50,42 @@ public class AdvancedIteratorDemo {
         
         // 2. 演示反向迭代器
         demonstrateReverseIterator(library);
+        
+        // 3. 演示原始类型迭代器
+        demonstratePrimitiveIterator(library);
+        
+        // 4. 演示并行遍历
+        demonstrateParallelTraversal(library);
+        
+        // 5. 演示迭代器流水线
+        demonstrateIteratorPipeline(library);
+        
+        // 6. 演示预取迭代器
+        demonstratePrefetchingIterator(library);
+        
+        // 7. 演示响应式发布者
+        demonstrateAggregatePublisher(library);
+        
+        // 8. 演示增量遍历
+        demonstrateChangeIteration(library);
+        
+        // 9. 演示排序遍历
+        demonstrateSortedIteration(library);
+        
+        // 10. 演示遍历统计
+        demonstrateIteratorMetrics(library);
+        
+        // 11. 演示迭代器复用
+        demonstrateIteratorReuse(library);
+        
+        // 12. 演示查询缓存
+        demonstrateQueryCache(library);
+        
+        // 13. 演示惰性聚合
+        demonstrateLazyAggregates();
+        
+        // 14. 演示分片组合遍历
+        demonstrateCompositeAggregate();
 
         System.out.println("\n=== 高级迭代器模式演示结束 ===");
     }
@@ -78,6 +137,19 @@ public class AdvancedIteratorDemo {
             System.out.printf("    %d. %s\n", count++, book);
         }
         System.out.println();
+        
+        // 1.3 建立n-gram索引后用查询代替顺序过滤
+        System.out.println("  1.3 使用索引查询作者包含'Martin'的书籍:");
+        library.createIndex(BookCollection.IndexType.NGRAM);
+        Iterator<Book> indexedIterator = library.findBooks(BookQuery.authorContains("Martin")).createIterator();
+        
+        count = 1;
+        while (indexedIterator.hasNext()) {
+            Book book = indexedIterator.next();
+            System.out.printf("    %d. %s\n", count++, book);
+        }
+        library.dropIndex(BookCollection.IndexType.NGRAM);
+        System.out.println();
     }
     
     /**
@@ -97,7 +169,432 @@ public class AdvancedIteratorDemo {
             System.out.printf("    %d. %s\n", count++, book);
         }
         System.out.println();
+        
+        // 2.2 按索引倒序读取，不复制元素
+        System.out.println("  2.2 不复制元素的反向遍历（前3本）:");
+        Iterator<Book> indexedReverse = ReverseIterator.of(library);
+        for (count = 1; count <= 3 && indexedReverse.hasNext(); count++) {
+            System.out.printf("    %d. %s\n", count, indexedReverse.next());
+        }
+        System.out.println();
+    }
+    
+    /**
+     * 演示原始类型迭代器
+     */
+    private static void demonstratePrimitiveIterator(BookCollection library) {
+        System.out.println("3. 原始类型迭代器演示:");
+        
+        // 3.1 统计书名长度，全程不产生Integer装箱
+        System.out.println("  3.1 统计书名长度超过8的书籍:");
+        IntAggregate titleLengths = IntAggregate.mapping(library, book -> book.getTitle().length());
+        IntIterator lengthIterator = new IntFilterIterator(titleLengths.createIntIterator(), length -> length > 8);
+        
+        int total = 0;
+        int count = 0;
+        while (lengthIterator.hasNext()) {
+            total += lengthIterator.nextInt();
+            count++;
+        }
+        System.out.printf("    共%d本，书名总长度%d\n", count, total);
+        
+        // 3.2 反向遍历书名长度
+        System.out.print("  3.2 反向遍历书名长度:");
+        IntIterator reverseLengths = new IntReverseIterator(titleLengths.createIntIterator());
+        while (reverseLengths.hasNext()) {
+            System.out.print(" " + reverseLengths.nextInt());
+        }
+        System.out.println();
+        System.out.println();
+    }
+    
+    /**
+     * 演示并行遍历
+     */
+    private static void demonstrateParallelTraversal(BookCollection library) {
+        System.out.println("4. 并行遍历演示:");
+        
+        // 4.1 并行统计作者包含"Martin"的书籍数量
+        int martinCount = ParallelAggregates.parallelReduce(library, 0,
+                (count, book) -> book.getAuthor().contains("Martin") ? count + 1 : count,
+                Integer::sum);
+        System.out.println("  4.1 作者包含'Martin'的书籍数量: " + martinCount);
+        
+        // 4.2 并行拼接书名，合并时保持原始顺序
+        String titles = ParallelAggregates.parallelReduce(library, "",
+                (joined, book) -> joined.isEmpty() ? book.getTitle() : joined + ", " + book.getTitle(),
+                (left, right) -> left.isEmpty() ? right : right.isEmpty() ? left : left + ", " + right);
+        System.out.println("  4.2 按原始顺序拼接的书名: " + titles);
+        System.out.println();
+    }
+    
+    /**
+     * 演示迭代器流水线
+     */
+    private static void demonstrateIteratorPipeline(BookCollection library) {
+        System.out.println("5. 迭代器流水线演示:");
+        
+        // 多个过滤条件、映射和limit在同一个循环中完成，取满2本后不再读取后面的书籍
+        System.out.println("  5.1 书名不含'Java'且作者名长于8个字符的前2本书的书名:");
+        Iterator<String> titles = IteratorPipeline.from(library)
+                .filter(book -> !book.getTitle().contains("Java"))
+                .filter(book -> book.getAuthor().length() > 8)
+                .map(Book::getTitle)
+                .limit(2)
+                .iterator();
+        
+        int count = 1;
+        while (titles.hasNext()) {
+            System.out.printf("    %d. %s\n", count++, titles.next());
+        }
+        System.out.println();
+    }
+    
+    /**
+     * 演示预取迭代器
+     */
+    private static void demonstratePrefetchingIterator(BookCollection library) {
+        System.out.println("6. 预取迭代器演示:");
+        
+        // 模拟每读取一本书需要等待10毫秒的慢速数据源
+        Aggregate<Book> slowSource = () -> new Iterator<Book>() {
+            private final Iterator<Book> books = library.createIterator();
+            
+            @Override
+            public boolean hasNext() {
+                return books.hasNext();
+            }
+            
+            @Override
+            public Book next() {
+                sleep(10);
+                return books.next();
+            }
+        };
+        
+        // 调用方处理每本书同样需要10毫秒
+        long start = System.nanoTime();
+        Iterator<Book> iterator = slowSource.createIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            sleep(10);
+        }
+        System.out.printf("  6.1 同步遍历耗时: %d ms\n", (System.nanoTime() - start) / 1_000_000);
+        
+        // 预取线程等待数据源的同时，调用方在处理上一本书
+        start = System.nanoTime();
+        try (PrefetchingIterator<Book> prefetching = new PrefetchingAggregate<>(slowSource, 4).createIterator()) {
+            while (prefetching.hasNext()) {
+                prefetching.next();
+                sleep(10);
+            }
+        }
+        System.out.printf("  6.2 预取遍历耗时: %d ms\n", (System.nanoTime() - start) / 1_000_000);
+        System.out.println();
+    }
+    
+    /**
+     * 演示响应式发布者
+     */
+    private static void demonstrateAggregatePublisher(BookCollection library) {
+        System.out.println("7. 响应式发布者演示:");
+        
+        // 过滤和反向在发布者一侧完成，订阅者每次只请求2本书
+        AggregatePublisher<Book> publisher = new AggregatePublisher<>(library, ForkJoinPool.commonPool(), Book[]::new)
+                .filter(book -> !book.getTitle().contains("Java"))
+                .reverse();
+        CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(new Flow.Subscriber<Book>() {
+            private Flow.Subscription subscription;
+            private int received;
+            
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(2);
+            }
+            
+            @Override
+            public void onNext(Book book) {
+                System.out.println("  收到: " + book.getTitle());
+                if (++received % 2 == 0) {
+                    subscription.request(2);
+                }
+            }
+            
+            @Override
+            public void onError(Throwable throwable) {
+                System.out.println("  出错: " + throwable);
+                done.countDown();
+            }
+            
+            @Override
+            public void onComplete() {
+                System.out.println("  完成，共收到" + received + "本书");
+                done.countDown();
+            }
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println();
+    }
+    
+    /**
+     * 演示增量遍历
+     */
+    private static void demonstrateChangeIteration(BookCollection library) {
+        System.out.println("8. 增量遍历演示:");
+        
+        // 记住当前版本，之后只处理这之后的变更
+        long lastVersion = library.getVersion();
+        library.addBook(new Book("Refactoring", "Martin Fowler"));
+        library.addBook(new Book("临时书籍", "Nobody"));
+        library.removeBook(new Book("临时书籍", "Nobody"));
+        library.removeBook(new Book("数据结构", "Mark Weiss"));
+        
+        // 先添加又移除的"临时书籍"相互抵消，不会出现在结果中
+        System.out.println("  版本" + lastVersion + "之后的变更:");
+        Iterator<ChangeEvent<Book>> changes = library.changesSince(lastVersion);
+        while (changes.hasNext()) {
+            ChangeEvent<Book> change = changes.next();
+            System.out.printf("    %s %s (版本%d)\n", change.getType(), change.getElement().getTitle(), change.getVersion());
+        }
+        System.out.println();
+    }
+    
+    /**
+     * 演示排序遍历
+     */
+    private static void demonstrateSortedIteration(BookCollection library) {
+        System.out.println("9. 排序遍历演示:");
+        
+        // 9.1 按书名排序的前3本书，只保留3个元素的堆
+        System.out.println("  9.1 按书名排序的前3本书:");
+        Iterator<Book> top = TopKIterator.of(library, 3, Comparator.comparing(Book::getTitle));
+        while (top.hasNext()) {
+            System.out.println("    " + top.next().getTitle());
+        }
+        
+        // 9.2 按作者全量排序，内存中最多保存4本书，其余写入临时文件后归并
+        System.out.println("  9.2 按作者排序的全部书籍（内存预算4本）:");
+        ExternalSortIterator.Codec<Book> codec = new ExternalSortIterator.Codec<Book>() {
+            @Override
+            public void write(DataOutput out, Book book) throws IOException {
+                out.writeUTF(book.getTitle());
+                out.writeUTF(book.getAuthor());
+            }
+            
+            @Override
+            public Book read(DataInput in) throws IOException {
+                return new Book(in.readUTF(), in.readUTF());
+            }
+        };
+        try (ExternalSortIterator<Book> sorted = new ExternalSortIterator<>(library.createIterator(),
+                Comparator.comparing(Book::getAuthor), codec, 4)) {
+            while (sorted.hasNext()) {
+                Book book = sorted.next();
+                System.out.println("    " + book.getAuthor() + " - " + book.getTitle());
+            }
+        } catch (IOException e) {
+            System.out.println("    排序失败: " + e.getMessage());
+        }
+        System.out.println();
+    }
+    
+    private static void demonstrateIteratorMetrics(BookCollection library) {
+        System.out.println("10. 遍历统计演示:");
+        
+        // 10.1 由系统属性控制的统计，关闭时返回原对象
+        System.out.println("  10.1 " + IteratorMetrics.ENABLED_PROPERTY + "=" + IteratorMetrics.isEnabled()
+                + ", instrument返回原聚合: " + (IteratorMetrics.instrument(library, "library") == library));
+        
+        // 10.2 显式统计：两次完整遍历、一次过滤遍历和一次提前关闭
+        System.out.println("  10.2 显式统计的指标:");
+        SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+        InstrumentedAggregate<Book> instrumented = new InstrumentedAggregate<>(library, "library", registry);
+        for (int round = 0; round < 2; round++) {
+            Iterator<Book> iterator = instrumented.createIterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+        }
+        Predicate<Book> javaFilter = IteratorMetrics.countingFilter(
+                book -> book.getTitle().contains("Java"), "library.javaFilter", registry);
+        FilterIterator<Book> filtered = new FilterIterator<>(instrumented.createIterator(), javaFilter);
+        while (filtered.hasNext()) {
+            filtered.next();
+        }
+        try (InstrumentedIterator<Book> iterator = instrumented.createIterator()) {
+            iterator.next();
+        }
+        for (String line : registry.toString().split("\n")) {
+            System.out.println("    " + line);
+        }
+        System.out.println();
+    }
+    
+    private static void demonstrateIteratorReuse(BookCollection library) {
+        System.out.println("11. 迭代器复用演示:");
+        
+        // 11.1 从线程本地池取出、归还后再次取出的是同一个迭代器
+        Iterator<Book> first = library.acquireIterator();
+        int count = 0;
+        while (first.hasNext()) {
+            first.next();
+            count++;
+        }
+        library.releaseIterator(first);
+        Iterator<Book> second = library.acquireIterator();
+        System.out.println("  11.1 遍历了" + count + "本书，再次取出的是同一个迭代器: " + (first == second));
+        
+        // 11.2 同一个过滤迭代器换数据源重新过滤
+        FilterIterator<Book> javaBooks = new FilterIterator<>(second, book -> book.getTitle().contains("Java"));
+        for (int round = 1; round <= 2; round++) {
+            int matched = 0;
+            while (javaBooks.hasNext()) {
+                javaBooks.next();
+                matched++;
+            }
+            System.out.println("  11.2 第" + round + "次过滤出" + matched + "本书");
+            javaBooks.reset(library.createIterator());
+        }
+        library.releaseIterator(second);
+        System.out.println();
+    }
+    
+    private static void demonstrateQueryCache(BookCollection library) {
+        System.out.println("12. 查询缓存演示:");
+        
+        // 12.1 相同查询键第二次直接从缓存返回
+        CachingAggregate<Book> cache = new CachingAggregate<>(library);
+        Aggregate<Book> martinBooks = cache.query("author:Martin", book -> book.getAuthor().contains("Martin"));
+        for (int round = 1; round <= 2; round++) {
+            int count = 0;
+            Iterator<Book> iterator = martinBooks.createIterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+            System.out.println("  12.1 第" + round + "次查询得到" + count + "本书，" + cache.getStats());
+        }
+        
+        // 12.2 数据源修改后版本变化，旧结果自动失效
+        Book added = new Book("Clean Agile", "Robert C. Martin");
+        library.addBook(added);
+        int count = 0;
+        Iterator<Book> iterator = martinBooks.createIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        System.out.println("  12.2 添加书籍后重新查询得到" + count + "本书，" + cache.getStats());
+        library.removeBook(added);
+        System.out.println();
+    }
+    
+    private static void demonstrateLazyAggregates() {
+        System.out.println("13. 惰性聚合演示:");
+        
+        // 13.1 区间可以按位置访问，反向遍历不缓冲元素
+        System.out.print("  13.1 range(0, 5)倒序:");
+        Iterator<Integer> reversed = ReverseIterator.of(LazyAggregates.range(0, 5));
+        while (reversed.hasNext()) {
+            System.out.print(" " + reversed.next());
+        }
+        System.out.println();
+        
+        // 13.2 无限序列配合take，zip按位置合并
+        Aggregate<String> numbered = LazyAggregates.zip(LazyAggregates.iterate(1, i -> i * 2),
+                LazyAggregates.take(LazyAggregates.iterate("a", s -> s + "a"), 4), (i, s) -> i + s);
+        System.out.print("  13.2 zip(2的幂, take(a...)):");
+        Iterator<String> zipped = numbered.createIterator();
+        while (zipped.hasNext()) {
+            System.out.print(" " + zipped.next());
+        }
+        System.out.println();
+        
+        // 13.3 逐行读取书目文件，边读边解析、过滤和分组，不把整个文件读入内存
+        Path dump = null;
+        try {
+            dump = Files.createTempFile("books", ".tsv");
+            Files.write(dump, List.of("Design Patterns\tGoF", "Clean Code\tRobert C. Martin",
+                    "Effective Java\tJoshua Bloch", "Refactoring\tMartin Fowler", "Clean Architecture\tRobert C. Martin"));
+            Aggregate<Book> books = LazyAggregates.map(LazyAggregates.lines(dump), line -> {
+                int tab = line.indexOf('\t');
+                return new Book(line.substring(0, tab), line.substring(tab + 1));
+            });
+            FilterIterator<Book> martin = new FilterIterator<>(books.createIterator(),
+                    book -> book.getAuthor().contains("Martin"));
+            int count = 0;
+            while (martin.hasNext()) {
+                martin.next();
+                count++;
+            }
+            System.out.println("  13.3 文件中作者包含Martin的书籍: " + count + "本");
+            Iterator<List<Book>> pages = LazyAggregates.window(books, 2).createIterator();
+            while (pages.hasNext()) {
+                System.out.println("  13.3 每页2本: " + pages.next());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (dump != null) {
+                try {
+                    Files.deleteIfExists(dump);
+                } catch (IOException ignored) {
+                    // 临时文件删除失败不影响演示
+                }
+            }
+        }
+        System.out.println();
+    }
+    
+    private static void demonstrateCompositeAggregate() {
+        System.out.println("14. 分片组合遍历演示:");
+        
+        // 三个分片使用不同的集合实现，各自按书名排序
+        ArrayBookCollection shard1 = new ArrayBookCollection();
+        shard1.addBook(new Book("Clean Code", "Robert C. Martin"));
+        shard1.addBook(new Book("Refactoring", "Martin Fowler"));
+        BookCollection shard2 = new BookCollection("分片2");
+        shard2.addBook(new Book("Design Patterns", "GoF"));
+        shard2.addBook(new Book("Effective Java", "Joshua Bloch"));
+        LinkedBookCollection shard3 = new LinkedBookCollection();
+        shard3.addBook(new Book("Algorithms", "Robert Sedgewick"));
+        shard3.addBook(new Book("The Pragmatic Programmer", "Andrew Hunt"));
+        List<Aggregate<Book>> shards = List.of(shard1, shard2, shard3);
+        
+        // 14.1 拼接：按分片顺序遍历
+        System.out.print("  14.1 拼接:");
+        Iterator<Book> concatenated = new CompositeAggregate<>(shards).createIterator();
+        while (concatenated.hasNext()) {
+            System.out.print(" " + concatenated.next().getTitle() + ";");
+        }
+        System.out.println();
+        
+        // 14.2 有序归并：败者树每次取出各分片当前最小的元素
+        System.out.print("  14.2 按书名归并:");
+        Iterator<Book> merged = new CompositeAggregate<>(shards, Comparator.comparing(Book::getTitle)).createIterator();
+        while (merged.hasNext()) {
+            System.out.print(" " + merged.next().getTitle() + ";");
+        }
+        System.out.println();
+        
+        // 14.3 并行：按分片拆分后交给Fork/Join线程池
+        long count = ParallelAggregates.parallelReduce(new CompositeAggregate<>(shards), 0L,
+                (total, book) -> total + 1, Long::sum);
+        System.out.println("  14.3 并行计数: " + count + "本");
     }
     
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
 }
@@ -0,0 +1,275 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * 聚合发布者
+ * 把拉取式的{@link Aggregate}适配为{@link Flow.Publisher}：每个订阅者拥有独立的迭代器，
+ * 只在订阅者request(n)之后才从迭代器读取元素，发出的元素数量严格不超过累计请求的数量，不需要任何无界缓冲区。
+ * 
+ * 订阅者不独占线程：每次有新的请求时，把一次"发送"任务提交到执行器，
+ * 单次任务最多发送{@link #MAX_EMITS_PER_RUN}个元素，之后重新排队，让其他订阅者的任务有机会执行。
+ * 提供元素数组工厂时通过{@link Iterator#nextBatch}批量读取，否则逐个调用hasNext()/next()。
+ * 
+ * 过滤和反向操作在迭代器一侧完成，被过滤掉的元素不会跨越异步边界。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class AggregatePublisher<T> implements Flow.Publisher<T> {
+    
+    /**
+     * 每次批量读取的元素数量上限
+     */
+    static final int BATCH_SIZE = 256;
+    
+    /**
+     * 单次发送任务最多发送的元素数量
+     */
+    static final int MAX_EMITS_PER_RUN = 1024;
+    
+    private final Aggregate<T> source;
+    private final Executor executor;
+    private final IntFunction<T[]> arrayFactory;
+    
+    /**
+     * 构造函数，在公共线程池中发送元素，逐个读取
+     * 
+     * @param source 源聚合
+     */
+    public AggregatePublisher(Aggregate<T> source) {
+        this(source, ForkJoinPool.commonPool(), null);
+    }
+    
+    /**
+     * 构造函数，逐个读取
+     * 
+     * @param source 源聚合
+     * @param executor 执行发送任务的执行器
+     */
+    public AggregatePublisher(Aggregate<T> source, Executor executor) {
+        this(source, executor, null);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param source 源聚合
+     * @param executor 执行发送任务的执行器
+     * @param arrayFactory 元素数组工厂（例如Book[]::new），为null时不使用批量读取
+     */
+    public AggregatePublisher(Aggregate<T> source, Executor executor, IntFunction<T[]> arrayFactory) {
+        this.source = Objects.requireNonNull(source);
+        this.executor = Objects.requireNonNull(executor);
+        this.arrayFactory = arrayFactory;
+    }
+    
+    /**
+     * 只发布满足条件的元素，过滤在读取迭代器时完成
+     * 
+     * @param predicate 过滤条件
+     * @return 新的发布者
+     */
+    public AggregatePublisher<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        Aggregate<T> filtered = () -> new FilterIterator<T>(source.createIterator(), predicate::test);
+        return new AggregatePublisher<>(filtered, executor, arrayFactory);
+    }
+    
+    /**
+     * 以相反的顺序发布元素，反向规则与{@link ReverseIterator#of(Aggregate)}相同
+     * 
+     * @return 新的发布者
+     */
+    public AggregatePublisher<T> reverse() {
+        Aggregate<T> reversed = () -> ReverseIterator.of(source);
+        return new AggregatePublisher<>(reversed, executor, arrayFactory);
+    }
+    
+    /**
+     * 订阅
+     * 在调用线程中执行onSubscribe，元素和结束信号在执行器中发送
+     * 
+     * @param subscriber 订阅者
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        AggregateSubscription subscription = new AggregateSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        // onSubscribe期间发送任务由这里持有，之后的请求才会各自调度
+        if (subscription.wip.decrementAndGet() != 0) {
+            subscription.execute();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("AggregatePublisher{source=%s, batch=%s}", source, arrayFactory != null);
+    }
+    
+    /**
+     * 单个订阅者的订阅
+     * wip记录尚未处理的调度次数，同一时刻最多只有一个发送任务在执行，
+     * 迭代器和批量缓冲区只在发送任务中访问
+     */
+    private final class AggregateSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand;
+        private final AtomicInteger wip;
+        private volatile boolean cancelled;
+        private volatile Throwable pendingError;
+        private Iterator<T> iterator;
+        private T[] buffer;
+        
+        AggregateSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.wip = new AtomicInteger(1);
+        }
+        
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                pendingError = new IllegalArgumentException("请求数量必须大于0: " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+        
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                execute();
+            }
+        }
+        
+        void execute() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                cancelled = true;
+                subscriber.onError(e);
+            }
+        }
+        
+        /**
+         * 发送任务：在请求数量和单次上限之内发送元素，源耗尽时发送onComplete
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            int budget = MAX_EMITS_PER_RUN;
+            while (true) {
+                if (cancelled) {
+                    release();
+                    return;
+                }
+                Throwable error = pendingError;
+                if (error != null) {
+                    cancelled = true;
+                    release();
+                    subscriber.onError(error);
+                    return;
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                try {
+                    if (iterator == null) {
+                        iterator = source.createIterator();
+                        buffer = arrayFactory == null ? null : arrayFactory.apply(BATCH_SIZE);
+                    }
+                    boolean exhausted = false;
+                    while (emitted < requested && budget > 0 && !cancelled) {
+                        int count = emit((int) Math.min(requested - emitted, budget));
+                        if (count == 0) {
+                            exhausted = true;
+                            break;
+                        }
+                        emitted += count;
+                        budget -= count;
+                    }
+                    if (!cancelled && (exhausted || !iterator.hasNext())) {
+                        cancelled = true;
+                        release();
+                        subscriber.onComplete();
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    cancelled = true;
+                    release();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (emitted > 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                if (budget <= 0) {
+                    // 让出执行器线程，保留发送权，重新排队后继续
+                    execute();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * 读取并发送最多limit个元素
+         * 
+         * @return 实际发送的数量，源已耗尽时返回0
+         */
+        private int emit(int limit) {
+            if (buffer == null) {
+                if (!iterator.hasNext()) {
+                    return 0;
+                }
+                subscriber.onNext(iterator.next());
+                return 1;
+            }
+            int count = iterator.nextBatch(buffer, 0, Math.min(limit, buffer.length));
+            for (int i = 0; i < count; i++) {
+                T element = buffer[i];
+                buffer[i] = null;
+                if (!cancelled) {
+                    subscriber.onNext(element);
+                }
+            }
+            return count;
+        }
+        
+        /**
+         * 释放迭代器，可关闭的迭代器（例如{@link PrefetchingIterator}）会被关闭
+         */
+        private void release() {
+            if (iterator instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) iterator).close();
+                } catch (Exception e) {
+                    // 订阅已经结束，关闭失败不再通知订阅者
+                }
+            }
+            iterator = null;
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.VersionedAggregate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * 带查询结果缓存的聚合
+ * 放在遍历代价高的聚合（文件、计算生成的数据）前面，相同的过滤查询第一次扫描数据源，
+ * 结果保存为数组，之后直接从内存返回，命中时不再访问数据源。
+ * 
+ * 缓存规则：
+ * <ul>
+ *     <li>键为调用方声明的查询键（按equals比较），或者过滤条件对象本身（按引用比较）</li>
+ *     <li>按最近最少使用（LRU）淘汰，同时限制条目数和总权重（默认每个元素权重为1）</li>
+ *     <li>可选的存活时间，过期的条目在下一次访问时视为未命中</li>
+ *     <li>数据源实现{@link VersionedAggregate}时（如BookCollection），每个条目记录计算时的版本，
+ *         addBook/removeBook之后版本变化，旧结果自动失效；其他数据源修改后需调用invalidate</li>
+ * </ul>
+ * 缓存的读写加锁，扫描数据源在锁外进行；多个线程同时未命中同一个键时各自扫描一次。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class CachingAggregate<T> implements Aggregate<T> {
+    
+    /**
+     * 默认最多缓存的查询数量
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    
+    /**
+     * 默认的总权重上限
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 1L << 20;
+    
+    /**
+     * 整个数据源的遍历结果使用的缓存键
+     */
+    private static final Object ALL = new Object();
+    
+    private final Aggregate<T> source;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<? super T> weigher;
+    private final LinkedHashMap<Object, Entry> entries;
+    private long totalWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    
+    /**
+     * 构造函数，使用默认的条目数和权重上限，条目不过期
+     * 
+     * @param source 数据源
+     */
+    public CachingAggregate(Aggregate<T> source) {
+        this(source, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT, 0, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * 构造函数，每个元素权重为1，即权重上限为缓存的元素总数
+     * 
+     * @param source 数据源
+     * @param maxEntries 最多缓存的查询数量
+     * @param maxWeight 总权重上限
+     * @param ttl 存活时间，0表示不过期
+     * @param unit 存活时间的单位
+     */
+    public CachingAggregate(Aggregate<T> source, int maxEntries, long maxWeight, long ttl, TimeUnit unit) {
+        this(source, maxEntries, maxWeight, ttl, unit, element -> 1);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param source 数据源
+     * @param maxEntries 最多缓存的查询数量
+     * @param maxWeight 总权重上限，单个结果超过上限时不缓存
+     * @param ttl 存活时间，0表示不过期
+     * @param unit 存活时间的单位
+     * @param weigher 计算单个元素权重的函数
+     */
+    public CachingAggregate(Aggregate<T> source, int maxEntries, long maxWeight, long ttl, TimeUnit unit,
+                            ToLongFunction<? super T> weigher) {
+        if (source == null || unit == null || weigher == null) {
+            throw new IllegalArgumentException("数据源、时间单位和权重函数不能为空");
+        }
+        if (maxEntries <= 0 || maxWeight <= 0 || ttl < 0) {
+            throw new IllegalArgumentException("条目数和权重上限必须大于0，存活时间不能为负数");
+        }
+        this.source = source;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+    
+    /**
+     * 遍历数据源的全部元素，结果同样被缓存
+     * 
+     * @return 迭代器
+     */
+    @Override
+    public Iterator<T> createIterator() {
+        return iterate(ALL, element -> true);
+    }
+    
+    /**
+     * 以过滤条件对象本身为键的缓存查询
+     * 只有传入同一个过滤条件实例时才会命中，每次新建的lambda不会命中
+     * 
+     * @param filter 过滤条件
+     * @return 满足条件的元素，每次创建迭代器时查询缓存
+     */
+    public Aggregate<T> query(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        return () -> iterate(new IdentityKey(filter), filter);
+    }
+    
+    /**
+     * 以声明的查询键缓存的查询
+     * 键相等（equals）的查询共享同一个结果，调用方需保证相等的键对应相同的过滤条件
+     * 
+     * @param key 查询键，例如BookQuery或字符串
+     * @param filter 过滤条件
+     * @return 满足条件的元素，每次创建迭代器时查询缓存
+     */
+    public Aggregate<T> query(Object key, Predicate<? super T> filter) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(filter);
+        return () -> iterate(key, filter);
+    }
+    
+    private Iterator<T> iterate(Object key, Predicate<? super T> filter) {
+        long version = currentVersion();
+        Object[] cached = lookup(key, version);
+        if (cached != null) {
+            return new CachedIterator<>(cached);
+        }
+        Object[] results = scan(filter);
+        store(key, results, version);
+        return new CachedIterator<>(results);
+    }
+    
+    private long currentVersion() {
+        return source instanceof VersionedAggregate ? ((VersionedAggregate<?>) source).getVersion() : 0;
+    }
+    
+    private Object[] scan(Predicate<? super T> filter) {
+        List<T> results = new ArrayList<>();
+        source.createIterator().forEachRemaining(element -> {
+            if (filter.test(element)) {
+                results.add(element);
+            }
+        });
+        return results.toArray();
+    }
+    
+    private synchronized Object[] lookup(Object key, long version) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.version == version && !isExpired(entry)) {
+                hits++;
+                return entry.results;
+            }
+            // 数据源已变化或已过期
+            remove(key, entry);
+            invalidations++;
+        }
+        misses++;
+        return null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private synchronized void store(Object key, Object[] results, long version) {
+        long weight = 0;
+        for (Object element : results) {
+            weight += weigher.applyAsLong((T) element);
+        }
+        if (weight > maxWeight) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(results, weight, version, System.nanoTime()));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += weight;
+        java.util.Iterator<Map.Entry<Object, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || totalWeight > maxWeight) {
+            Map.Entry<Object, Entry> victim = eldest.next();
+            totalWeight -= victim.getValue().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+    
+    private boolean isExpired(Entry entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.createdNanos > ttlNanos;
+    }
+    
+    private void remove(Object key, Entry entry) {
+        entries.remove(key);
+        totalWeight -= entry.weight;
+    }
+    
+    /**
+     * 使以过滤条件对象为键的缓存结果失效
+     * 
+     * @param filter 过滤条件
+     */
+    public void invalidate(Predicate<? super T> filter) {
+        invalidateKey(new IdentityKey(filter));
+    }
+    
+    /**
+     * 使指定查询键的缓存结果失效
+     * 
+     * @param key 查询键
+     */
+    public void invalidate(Object key) {
+        invalidateKey(key);
+    }
+    
+    private synchronized void invalidateKey(Object key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            remove(key, entry);
+            invalidations++;
+        }
+    }
+    
+    /**
+     * 清空全部缓存结果，数据源在缓存之外被修改且不带版本时调用
+     */
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+        totalWeight = 0;
+    }
+    
+    /**
+     * 获取缓存统计的快照
+     * 
+     * @return 命中、未命中、淘汰和失效次数
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), totalWeight);
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("CachingAggregate{entries=%d/%d, weight=%d/%d, source=%s}",
+                entries.size(), maxEntries, totalWeight, maxWeight, source);
+    }
+    
+    /**
+     * 缓存统计快照
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int entries;
+        private final long weight;
+        
+        Stats(long hits, long misses, long evictions, long invalidations, int entries, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.weight = weight;
+        }
+        
+        public long getHits() {
+            return hits;
+        }
+        
+        public long getMisses() {
+            return misses;
+        }
+        
+        public long getEvictions() {
+            return evictions;
+        }
+        
+        public long getInvalidations() {
+            return invalidations;
+        }
+        
+        public int getEntries() {
+            return entries;
+        }
+        
+        public long getWeight() {
+            return weight;
+        }
+        
+        /**
+         * 命中率
+         * 
+         * @return 命中次数占查询次数的比例，没有查询时为0
+         */
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Stats{hits=%d, misses=%d, hitRate=%.2f, evictions=%d, invalidations=%d, entries=%d, weight=%d}",
+                    hits, misses, getHitRate(), evictions, invalidations, entries, weight);
+        }
+    }
+    
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        final Object[] results;
+        final long weight;
+        final long version;
+        final long createdNanos;
+        
+        Entry(Object[] results, long weight, long version, long createdNanos) {
+            this.results = results;
+            this.weight = weight;
+            this.version = version;
+            this.createdNanos = createdNanos;
+        }
+    }
+    
+    /**
+     * 按引用比较的过滤条件键
+     */
+    private static final class IdentityKey {
+        private final Object filter;
+        
+        IdentityKey(Object filter) {
+            this.filter = filter;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).filter == filter;
+        }
+        
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(filter);
+        }
+    }
+    
+    /**
+     * 遍历缓存结果数组的迭代器，多个迭代器共享同一个只读数组
+     */
+    private static final class CachedIterator<T> implements Iterator<T> {
+        private final Object[] results;
+        private int currentIndex;
+        
+        CachedIterator(Object[] results) {
+            this.results = results;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return currentIndex < results.length;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            return (T) results[currentIndex++];
+        }
+        
+        @Override
+        public long skip(long n) {
+            int step = (int) Math.max(Math.min(n, results.length - currentIndex), 0);
+            currentIndex += step;
+            return step;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            Object[] array = results;
+            for (int i = currentIndex; i < array.length; i++) {
+                action.accept((T) array[i]);
+            }
+            currentIndex = array.length;
+        }
+        
+        @Override
+        public int nextBatch(T[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            int count = Math.min(len, results.length - currentIndex);
+            if (count <= 0) {
+                return 0;
+            }
+            System.arraycopy(results, currentIndex, dst, off, count);
+            currentIndex += count;
+            return count;
+        }
+    }
+}
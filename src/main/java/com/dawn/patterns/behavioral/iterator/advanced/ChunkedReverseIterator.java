@@ -0,0 +1,113 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+
+/**
+ * 分块反向迭代器
+ * 用于无法按位置访问的聚合（例如单向链表）：从尾部开始每次只缓冲一块元素，
+ * 通过重新创建正向迭代器并skip()到块的起点来读取每一块，内存占用不超过一块的大小
+ * 
+ * 每读取一块都要从头skip，总时间随块数增加；块越大skip次数越少，
+ * 对于能够整段跳过的迭代器（例如LinkedBookCollection按节点跳过）代价很小。
+ * 遍历期间聚合不应被修改。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class ChunkedReverseIterator<T> implements Iterator<T> {
+    
+    /**
+     * 默认块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+    
+    private final Aggregate<T> aggregate;
+    private final Object[] chunk;
+    private long chunkStart;
+    private int currentIndex;
+    
+    /**
+     * 使用默认块大小的构造函数
+     * 
+     * @param aggregate 原始聚合
+     */
+    public ChunkedReverseIterator(Aggregate<T> aggregate) {
+        this(aggregate, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param aggregate 原始聚合
+     * @param chunkSize 块大小
+     */
+    public ChunkedReverseIterator(Aggregate<T> aggregate, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("块大小必须为正数: " + chunkSize);
+        }
+        this.aggregate = aggregate;
+        
+        // 先数出元素总数，再从最后一块开始
+        long size = aggregate.createIterator().skip(Long.MAX_VALUE);
+        this.chunk = new Object[(int) Math.min(chunkSize, Math.max(size, 1))];
+        this.chunkStart = size;
+        this.currentIndex = -1;
+        loadPreviousChunk();
+    }
+    
+    /**
+     * 读取当前块之前的一块元素
+     */
+    private void loadPreviousChunk() {
+        if (chunkStart == 0) {
+            return;
+        }
+        long chunkEnd = chunkStart;
+        chunkStart = Math.max(0, chunkEnd - chunk.length);
+        int count = (int) (chunkEnd - chunkStart);
+        
+        Iterator<T> iterator = aggregate.createIterator();
+        iterator.skip(chunkStart);
+        int loaded = 0;
+        while (loaded < count && iterator.hasNext()) {
+            chunk[loaded++] = iterator.next();
+        }
+        if (loaded < count) {
+            throw new IllegalStateException("聚合在反向遍历期间被修改");
+        }
+        currentIndex = count - 1;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return currentIndex >= 0;
+    }
+    
+    /**
+     * 获取上一个元素（反向遍历）
+     * 
+     * @return 上一个元素
+     * @throws IndexOutOfBoundsException 如果没有更多元素时抛出异常
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException("没有更多元素可以反向迭代");
+        }
+        T element = (T) chunk[currentIndex];
+        chunk[currentIndex--] = null;
+        if (currentIndex < 0) {
+            loadPreviousChunk();
+        }
+        return element;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ChunkedReverseIterator{chunkStart=%d, currentIndex=%d, hasNext=%s}", 
+                           chunkStart, currentIndex, hasNext());
+    }
+}
@@ -0,0 +1,367 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 由多个分片组成的组合聚合
+ * 把分布在多个集合（ArrayBookCollection、BookCollection、LinkedBookCollection等）中的元素
+ * 当作一个聚合遍历，不需要先把各个分片的元素复制到同一个列表中。
+ * 
+ * 遍历方式：
+ * <ul>
+ *     <li>拼接：按分片顺序依次遍历，同一时刻只持有一个分片的迭代器</li>
+ *     <li>有序归并：每个分片已按同一个比较器排好序时，用败者树对k个分片做多路归并，
+ *         额外内存为O(k)，每个元素的比较次数约为log2(k)；相等的元素按分片顺序输出</li>
+ *     <li>并行：{@link #createSplittableIterator()}先按分片对半拆分，只剩一个分片时再交给该分片自己的拆分逻辑，
+ *         可以直接交给{@link ParallelAggregates}；并行遍历按拼接顺序划分，不保持归并顺序</li>
+ * </ul>
+ * 分片列表在构造时复制，遍历期间各个分片不应被修改。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class CompositeAggregate<T> implements Aggregate<T> {
+    
+    private final List<Aggregate<? extends T>> shards;
+    private final Comparator<? super T> comparator;
+    
+    /**
+     * 构造拼接遍历的组合聚合
+     * 
+     * @param shards 分片，按列表顺序遍历
+     */
+    public CompositeAggregate(List<? extends Aggregate<? extends T>> shards) {
+        this(shards, null);
+    }
+    
+    /**
+     * 构造组合聚合
+     * 
+     * @param shards 分片
+     * @param comparator 比较器，不为null时按有序归并遍历，每个分片都必须已按该比较器排序；为null时拼接遍历
+     */
+    public CompositeAggregate(List<? extends Aggregate<? extends T>> shards, Comparator<? super T> comparator) {
+        if (shards == null) {
+            throw new IllegalArgumentException("分片列表不能为空");
+        }
+        this.shards = List.copyOf(shards);
+        this.comparator = comparator;
+    }
+    
+    /**
+     * 获取分片数量
+     * 
+     * @return 分片数量
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+    
+    /**
+     * 是否按有序归并遍历
+     * 
+     * @return 指定了比较器时返回true
+     */
+    public boolean isMerging() {
+        return comparator != null;
+    }
+    
+    /**
+     * 创建迭代器
+     * 拼接模式依次遍历各个分片；归并模式立即为每个分片创建迭代器并读取第一个元素
+     * 
+     * @return 新的迭代器实例
+     */
+    @Override
+    public Iterator<T> createIterator() {
+        if (comparator == null) {
+            return new ConcatIterator<>(shards);
+        }
+        return new MergeIterator<>(shards, comparator);
+    }
+    
+    /**
+     * 创建按分片拆分的可拆分迭代器，用于并行遍历
+     * 
+     * @return 新的可拆分迭代器实例
+     */
+    @Override
+    public SplittableIterator<T> createSplittableIterator() {
+        SplittableIterator<? extends T>[] parts = newPartArray(shards.size());
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = shards.get(i).createSplittableIterator();
+        }
+        return new ShardSplitter<>(parts, 0, parts.length);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> SplittableIterator<? extends T>[] newPartArray(int length) {
+        return (SplittableIterator<? extends T>[]) new SplittableIterator<?>[length];
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CompositeAggregate{shards=%d, merging=%s}", shards.size(), isMerging());
+    }
+    
+    /**
+     * 拼接迭代器
+     */
+    private static final class ConcatIterator<T> implements Iterator<T>, AutoCloseable {
+        private final List<Aggregate<? extends T>> shards;
+        private int nextShard;
+        private Iterator<? extends T> current;
+        
+        ConcatIterator(List<Aggregate<? extends T>> shards) {
+            this.shards = shards;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (nextShard == shards.size()) {
+                    current = null;
+                    return false;
+                }
+                current = shards.get(nextShard++).createIterator();
+            }
+            return true;
+        }
+        
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            return current.next();
+        }
+        
+        /**
+         * 逐个分片调用skip，能按位置定位的分片整段跳过
+         */
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            while (skipped < n && hasNext()) {
+                skipped += current.skip(n - skipped);
+            }
+            return skipped;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                current.forEachRemaining(action);
+            }
+        }
+        
+        /**
+         * 关闭当前分片的迭代器（如果它持有文件等资源），之后hasNext()返回false
+         */
+        @Override
+        public void close() {
+            if (current != null) {
+                LazyAggregates.closeIterator(current);
+                current = null;
+            }
+            nextShard = shards.size();
+        }
+    }
+    
+    /**
+     * 基于败者树的多路归并迭代器
+     * tree[0]保存当前胜者（最小元素所在的分片），tree[1..k-1]保存各内部节点比赛的败者；
+     * 取出胜者后只需沿该分片到根的路径重新比赛一次
+     */
+    private static final class MergeIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Comparator<? super T> comparator;
+        private final Iterator<? extends T>[] iterators;
+        private final Object[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+        
+        @SuppressWarnings("unchecked")
+        MergeIterator(List<Aggregate<? extends T>> shards, Comparator<? super T> comparator) {
+            this.comparator = comparator;
+            this.k = shards.size();
+            this.iterators = (Iterator<? extends T>[]) new Iterator<?>[k];
+            this.heads = new Object[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(k, 1)];
+            for (int i = 0; i < k; i++) {
+                iterators[i] = shards.get(i).createIterator();
+                load(i);
+            }
+            // 所有节点先指向虚拟的最小分片k，再从后往前逐个加入真实分片
+            Arrays.fill(tree, k);
+            for (int i = k - 1; i >= 0; i--) {
+                adjust(i);
+            }
+        }
+        
+        private void load(int shard) {
+            if (iterators[shard].hasNext()) {
+                heads[shard] = iterators[shard].next();
+            } else {
+                heads[shard] = null;
+                exhausted[shard] = true;
+            }
+        }
+        
+        /**
+         * 分片shard的元素变化后，从对应的叶子向根重新比赛
+         */
+        private void adjust(int shard) {
+            int winner = shard;
+            for (int node = (shard + k) >> 1; node > 0; node >>= 1) {
+                if (loses(winner, tree[node])) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+        
+        /**
+         * a是否输给b：虚拟分片k最小，已耗尽的分片最大，相等时分片序号小的获胜
+         */
+        @SuppressWarnings("unchecked")
+        private boolean loses(int a, int b) {
+            if (a == k || b == k) {
+                return b == k;
+            }
+            if (exhausted[a] || exhausted[b]) {
+                return exhausted[a] && (!exhausted[b] || a > b);
+            }
+            int cmp = comparator.compare((T) heads[a], (T) heads[b]);
+            return cmp > 0 || (cmp == 0 && a > b);
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return k > 0 && !exhausted[tree[0]];
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            int winner = tree[0];
+            T element = (T) heads[winner];
+            load(winner);
+            adjust(winner);
+            return element;
+        }
+        
+        /**
+         * 关闭全部分片的迭代器，之后hasNext()返回false
+         */
+        @Override
+        public void close() {
+            for (int i = 0; i < k; i++) {
+                if (!exhausted[i]) {
+                    exhausted[i] = true;
+                    heads[i] = null;
+                    LazyAggregates.closeIterator(iterators[i]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 按分片拆分的迭代器，负责分片区间[currentShard, fence)
+     */
+    private static final class ShardSplitter<T> implements SplittableIterator<T> {
+        private final SplittableIterator<? extends T>[] parts;
+        private int currentShard;
+        private final int fence;
+        
+        ShardSplitter(SplittableIterator<? extends T>[] parts, int origin, int fence) {
+            this.parts = parts;
+            this.currentShard = origin;
+            this.fence = fence;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (currentShard < fence) {
+                if (parts[currentShard].hasNext()) {
+                    return true;
+                }
+                currentShard++;
+            }
+            return false;
+        }
+        
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            return parts[currentShard].next();
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            for (; currentShard < fence; currentShard++) {
+                parts[currentShard].forEachRemaining(action);
+            }
+        }
+        
+        /**
+         * 剩余多个分片时按分片数对半拆分，只剩一个分片时拆分该分片
+         */
+        @Override
+        public SplittableIterator<T> trySplit() {
+            int remaining = fence - currentShard;
+            if (remaining >= 2) {
+                int mid = currentShard + (remaining >>> 1);
+                ShardSplitter<T> prefix = new ShardSplitter<>(parts, currentShard, mid);
+                currentShard = mid;
+                return prefix;
+            }
+            if (remaining == 1) {
+                SplittableIterator<? extends T> prefix = parts[currentShard].trySplit();
+                if (prefix != null) {
+                    SplittableIterator<? extends T>[] single = newPartArray(1);
+                    single[0] = prefix;
+                    return new ShardSplitter<>(single, 0, 1);
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * 各分片估计值之和，任何一个分片大小未知时返回UNKNOWN_SIZE
+         */
+        @Override
+        public long estimateSize() {
+            long total = 0;
+            for (int i = currentShard; i < fence; i++) {
+                long size = parts[i].estimateSize();
+                if (size == UNKNOWN_SIZE) {
+                    return UNKNOWN_SIZE;
+                }
+                total += size;
+                if (total < 0 || total == UNKNOWN_SIZE) {
+                    return UNKNOWN_SIZE;
+                }
+            }
+            return total;
+        }
+    }
+}
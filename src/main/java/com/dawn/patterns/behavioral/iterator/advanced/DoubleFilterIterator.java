@@ -0,0 +1,75 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.DoubleIterator;
+import java.util.function.DoublePredicate;
+
+/**
+ * double过滤迭代器
+ * {@link FilterIterator}的原始类型版本，过滤过程中不产生装箱对象
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class DoubleFilterIterator implements DoubleIterator {
+    
+    private final DoubleIterator originalIterator;
+    private final DoublePredicate filter;
+    private double nextElement;
+    private boolean hasNextElement;
+    
+    /**
+     * 构造函数
+     * 
+     * @param originalIterator 原始迭代器
+     * @param filter 过滤条件
+     */
+    public DoubleFilterIterator(DoubleIterator originalIterator, DoublePredicate filter) {
+        this.originalIterator = originalIterator;
+        this.filter = filter;
+        this.hasNextElement = false;
+        findNextElement();
+    }
+    
+    /**
+     * 查找下一个满足条件的元素
+     */
+    private void findNextElement() {
+        hasNextElement = false;
+        while (originalIterator.hasNext()) {
+            double element = originalIterator.nextDouble();
+            if (filter.test(element)) {
+                nextElement = element;
+                hasNextElement = true;
+                break;
+            }
+        }
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return hasNextElement;
+    }
+    
+    /**
+     * 获取下一个满足条件的元素
+     * 
+     * @return 下一个满足条件的元素
+     * @throws IndexOutOfBoundsException 如果没有更多满足条件的元素时抛出异常
+     */
+    @Override
+    public double nextDouble() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException("没有更多满足条件的元素");
+        }
+        
+        double current = nextElement;
+        findNextElement();
+        return current;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("DoubleFilterIterator{hasNext=%s, filter=%s}", 
+                           hasNext(), filter.toString());
+    }
+}
@@ -0,0 +1,368 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 外部归并排序迭代器
+ * 按比较器升序返回原始迭代器的全部元素，内存中最多同时保存maxInMemory个待排序元素：
+ * 元素数量不超过内存预算时直接在内存中排序；超过时每攒满一批就排序并写入临时文件（一个有序段），
+ * 最后多路归并各个有序段。有序段过多时先分组归并成更长的段，同时打开的文件不超过{@link #MAX_MERGE_WIDTH}个。
+ * 排序是稳定的，相等的元素保持原始顺序。
+ * 
+ * 元素通过{@link Codec}写入临时文件。遍历结束时自动删除临时文件，提前放弃时应调用{@link #close()}。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class ExternalSortIterator<T> implements Iterator<T>, AutoCloseable {
+    
+    /**
+     * 一次归并最多同时读取的有序段数量
+     */
+    static final int MAX_MERGE_WIDTH = 64;
+    
+    private static final int FILE_BUFFER_SIZE = 1 << 16;
+    
+    private final Comparator<? super T> comparator;
+    private final Codec<T> codec;
+    private final Path tempDirectory;
+    private final List<Path> tempFiles;
+    private final PriorityQueue<Run<T>> runs;
+    
+    /**
+     * 元素与临时文件之间的编解码
+     * 
+     * @param <T> 元素类型
+     */
+    public interface Codec<T> {
+        
+        /**
+         * 写入一个元素
+         * 
+         * @param out 输出
+         * @param element 元素
+         * @throws IOException 如果写入失败
+         */
+        void write(DataOutput out, T element) throws IOException;
+        
+        /**
+         * 读取一个元素
+         * 
+         * @param in 输入
+         * @return 元素
+         * @throws IOException 如果读取失败
+         */
+        T read(DataInput in) throws IOException;
+    }
+    
+    /**
+     * 构造函数，在系统临时目录中创建临时文件
+     * 
+     * @param originalIterator 原始迭代器
+     * @param comparator 排序规则
+     * @param codec 元素编解码
+     * @param maxInMemory 内存中最多同时保存的元素数量
+     * @throws IOException 如果写入临时文件失败
+     */
+    public ExternalSortIterator(Iterator<T> originalIterator, Comparator<? super T> comparator,
+                                Codec<T> codec, int maxInMemory) throws IOException {
+        this(originalIterator, comparator, codec, maxInMemory, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+    
+    /**
+     * 构造函数，立即读取原始迭代器并生成有序段
+     * 
+     * @param originalIterator 原始迭代器
+     * @param comparator 排序规则
+     * @param codec 元素编解码
+     * @param maxInMemory 内存中最多同时保存的元素数量
+     * @param tempDirectory 临时文件目录
+     * @throws IOException 如果写入临时文件失败
+     */
+    public ExternalSortIterator(Iterator<T> originalIterator, Comparator<? super T> comparator,
+                                Codec<T> codec, int maxInMemory, Path tempDirectory) throws IOException {
+        if (maxInMemory <= 0) {
+            throw new IllegalArgumentException("内存预算必须大于0: " + maxInMemory);
+        }
+        this.comparator = comparator;
+        this.codec = codec;
+        this.tempDirectory = tempDirectory;
+        this.tempFiles = new ArrayList<>();
+        // 先比较元素，相等时比较有序段的先后，保证归并结果稳定
+        this.runs = new PriorityQueue<>((a, b) -> {
+            int result = comparator.compare(a.current, b.current);
+            return result != 0 ? result : Integer.compare(a.order, b.order);
+        });
+        try {
+            buildRuns(originalIterator, maxInMemory);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 按内存预算切分并排序，只有一段时不写任何文件
+     */
+    private void buildRuns(Iterator<T> source, int maxInMemory) throws IOException {
+        List<Path> spilled = new ArrayList<>();
+        Object[] buffer = new Object[Math.min(maxInMemory, 1 << 10)];
+        int count = 0;
+        while (source.hasNext()) {
+            if (count == buffer.length) {
+                if (count == maxInMemory) {
+                    spilled.add(spill(buffer, count));
+                    count = 0;
+                } else {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, maxInMemory));
+                }
+            }
+            buffer[count++] = source.next();
+        }
+        sort(buffer, count);
+        List<Run<T>> sources = new ArrayList<>();
+        // 有序段过多时先分组归并，直到可以一次打开全部文件
+        while (spilled.size() + 1 > MAX_MERGE_WIDTH) {
+            List<Path> merged = new ArrayList<>();
+            for (int from = 0; from < spilled.size(); from += MAX_MERGE_WIDTH) {
+                List<Path> group = spilled.subList(from, Math.min(from + MAX_MERGE_WIDTH, spilled.size()));
+                merged.add(merge(group));
+            }
+            spilled = merged;
+        }
+        try {
+            for (Path file : spilled) {
+                sources.add(new FileRun<>(file, codec, sources.size()));
+            }
+            sources.add(new ArrayRun<>(buffer, count, sources.size()));
+            for (Run<T> run : sources) {
+                if (run.advance()) {
+                    runs.add(run);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            sources.forEach(Run::close);
+            throw e;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void sort(Object[] buffer, int count) {
+        Arrays.sort((T[]) buffer, 0, count, comparator);
+    }
+    
+    /**
+     * 把内存中的一批元素排序后写入新的临时文件
+     */
+    private Path spill(Object[] buffer, int count) throws IOException {
+        sort(buffer, count);
+        Path file = createTempFile();
+        try (DataOutputStream out = newOutput(file)) {
+            out.writeLong(count);
+            for (int i = 0; i < count; i++) {
+                @SuppressWarnings("unchecked")
+                T element = (T) buffer[i];
+                codec.write(out, element);
+                buffer[i] = null;
+            }
+        }
+        return file;
+    }
+    
+    /**
+     * 归并一组有序段文件到新的临时文件，并删除原来的文件
+     */
+    private Path merge(List<Path> files) throws IOException {
+        PriorityQueue<Run<T>> queue = new PriorityQueue<>(runs.comparator());
+        List<FileRun<T>> sources = new ArrayList<>();
+        Path target = createTempFile();
+        try (DataOutputStream out = newOutput(target)) {
+            long total = 0;
+            for (Path file : files) {
+                FileRun<T> run = new FileRun<>(file, codec, sources.size());
+                sources.add(run);
+                total += run.remaining;
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+            out.writeLong(total);
+            while (!queue.isEmpty()) {
+                Run<T> run = queue.poll();
+                codec.write(out, run.current);
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+        } finally {
+            sources.forEach(Run::close);
+        }
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+            tempFiles.remove(file);
+        }
+        return target;
+    }
+    
+    private Path createTempFile() throws IOException {
+        Path file = Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+        tempFiles.add(file);
+        return file;
+    }
+    
+    private static DataOutputStream newOutput(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), FILE_BUFFER_SIZE));
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return !runs.isEmpty();
+    }
+    
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException("没有更多元素");
+        }
+        Run<T> run = runs.poll();
+        T element = run.current;
+        try {
+            if (run.advance()) {
+                runs.add(run);
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        if (runs.isEmpty()) {
+            close();
+        }
+        return element;
+    }
+    
+    /**
+     * 关闭全部有序段并删除临时文件，之后hasNext()返回false
+     */
+    @Override
+    public void close() {
+        for (Run<T> run : runs) {
+            run.close();
+        }
+        runs.clear();
+        for (Path file : tempFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // 删除失败的临时文件留给操作系统清理
+            }
+        }
+        tempFiles.clear();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ExternalSortIterator{runs=%d, tempFiles=%d}", runs.size(), tempFiles.size());
+    }
+    
+    /**
+     * 有序段：按顺序读取一段已排序的元素
+     */
+    private abstract static class Run<T> {
+        final int order;
+        T current;
+        
+        Run(int order) {
+            this.order = order;
+        }
+        
+        /**
+         * 读取下一个元素到current
+         * 
+         * @return 没有更多元素时返回false
+         */
+        abstract boolean advance() throws IOException;
+        
+        void close() {
+        }
+    }
+    
+    /**
+     * 内存中的有序段
+     */
+    private static final class ArrayRun<T> extends Run<T> {
+        private final Object[] elements;
+        private final int count;
+        private int currentIndex;
+        
+        ArrayRun(Object[] elements, int count, int order) {
+            super(order);
+            this.elements = elements;
+            this.count = count;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean advance() {
+            if (currentIndex == count) {
+                current = null;
+                return false;
+            }
+            current = (T) elements[currentIndex];
+            elements[currentIndex++] = null;
+            return true;
+        }
+    }
+    
+    /**
+     * 临时文件中的有序段，文件开头是元素数量（long）
+     */
+    private static final class FileRun<T> extends Run<T> {
+        private final DataInputStream in;
+        private final Codec<T> codec;
+        private long remaining;
+        
+        FileRun(Path file, Codec<T> codec, int order) throws IOException {
+            super(order);
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), FILE_BUFFER_SIZE));
+            this.codec = codec;
+            this.remaining = in.readLong();
+        }
+        
+        @Override
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                current = null;
+                close();
+                return false;
+            }
+            current = codec.read(in);
+            remaining--;
+            return true;
+        }
+        
+        @Override
+        void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // 只读文件，关闭失败不影响结果
+            }
+        }
+    }
+}
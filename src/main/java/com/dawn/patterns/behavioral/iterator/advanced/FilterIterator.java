@@ -1,19 +1,23 @@
 package com.dawn.patterns.behavioral.iterator.advanced;
 
 import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.ResettableIterator;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
  * 过滤迭代器
  * 对原始迭代器进行过滤，只返回满足条件的元素
+ * 可以通过reset()换一个原始迭代器（和过滤条件）重复使用，避免每次扫描新建过滤迭代器
  * 
  * @param <T> 元素类型
  * @author Dawn
  * @version 1.0.0
  */
-public class FilterIterator<T> implements Iterator<T> {
+public class FilterIterator<T> implements ResettableIterator<T, Iterator<T>> {
     
-    private final Iterator<T> originalIterator;
+    private Iterator<T> originalIterator;
     private Predicate<T> filter;
     private T nextElement;
     private boolean hasNextElement;
@@ -31,6 +35,29 @@ public class FilterIterator<T> implements Iterator<T> {
         findNextElement();
     }
     
+    /**
+     * 换一个原始迭代器重新开始过滤，沿用原来的过滤条件
+     * 
+     * @param originalIterator 原始迭代器
+     */
+    @Override
+    public void reset(Iterator<T> originalIterator) {
+        reset(originalIterator, filter);
+    }
+    
+    /**
+     * 换一个原始迭代器和过滤条件重新开始过滤
+     * 
+     * @param originalIterator 原始迭代器
+     * @param filter 过滤条件
+     */
+    public void reset(Iterator<T> originalIterator, Predicate<T> filter) {
+        this.originalIterator = originalIterator;
+        this.filter = filter;
+        this.nextElement = null;
+        findNextElement();
+    }
+    
     /**
      * 查找下一个满足条件的元素
      */
@@ -72,6 +99,28 @@ public class FilterIterator<T> implements Iterator<T> {
         findNextElement(); // 预先查找下一个元素
         return current;
     }
+    
+    /**
+     * 对剩余满足条件的元素执行操作
+     * 过滤直接放进原始迭代器的批量遍历中完成
+     * 
+     * @param action 要执行的操作
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (hasNextElement) {
+            hasNextElement = false;
+            T current = nextElement;
+            nextElement = null;
+            action.accept(current);
+        }
+        originalIterator.forEachRemaining(element -> {
+            if (filter.test(element)) {
+                action.accept(element);
+            }
+        });
+    }
 
 
     
@@ -0,0 +1,427 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 迭代器流水线
+ * 把多个过滤、映射和limit合并成对原始迭代器的单个循环，
+ * 代替层层嵌套的{@link FilterIterator}，每个元素只经过一次hasNext()/next()
+ *
+ * 相邻的多个filter会合并为一组，运行时采样统计每个条件的通过率和耗时，
+ * 把"代价低、淘汰率高"的条件调整到前面；limit达到上限后立即停止从上游取元素。
+ * 因此同一组中的条件应当相互独立且没有副作用，依赖先后顺序的条件（例如先判空）请写在同一个条件里。
+ *
+ * <pre>
+ * Iterator&lt;Book&gt; iterator = IteratorPipeline.from(library)
+ *         .filter(book -&gt; book.getAuthor().equals("GoF"))
+ *         .filter(book -&gt; book.getTitle().startsWith("Design"))
+ *         .limit(20)
+ *         .iterator();
+ * </pre>
+ *
+ * @param <T> 输出元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class IteratorPipeline<T> {
+
+    private final Aggregate<?> source;
+    private final List<StageSpec> stages;
+
+    private IteratorPipeline(Aggregate<?> source, List<StageSpec> stages) {
+        this.source = source;
+        this.stages = stages;
+    }
+
+    /**
+     * 以聚合为数据源创建流水线，每次调用{@link #iterator()}都会重新创建原始迭代器
+     *
+     * @param source 数据源
+     * @param <T> 元素类型
+     * @return 新的流水线
+     */
+    public static <T> IteratorPipeline<T> from(Aggregate<T> source) {
+        return new IteratorPipeline<>(Objects.requireNonNull(source), new ArrayList<>());
+    }
+
+    /**
+     * 追加过滤条件
+     *
+     * @param predicate 过滤条件
+     * @return 新的流水线
+     */
+    public IteratorPipeline<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        List<StageSpec> next = new ArrayList<>(stages);
+        StageSpec last = next.isEmpty() ? null : next.get(next.size() - 1);
+        if (last instanceof FilterSpec) {
+            // 与前一组过滤条件合并
+            next.set(next.size() - 1, ((FilterSpec) last).with(predicate));
+        } else {
+            next.add(new FilterSpec(List.of(predicate)));
+        }
+        return new IteratorPipeline<>(source, next);
+    }
+
+    /**
+     * 追加映射
+     *
+     * @param mapper 映射函数
+     * @param <R> 映射后的元素类型
+     * @return 新的流水线
+     */
+    public <R> IteratorPipeline<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+        List<StageSpec> next = new ArrayList<>(stages);
+        next.add(new MapSpec(mapper));
+        return new IteratorPipeline<>(source, next);
+    }
+
+    /**
+     * 限制通过此处的元素数量，达到上限后不再从上游读取
+     *
+     * @param maxSize 最大数量
+     * @return 新的流水线
+     */
+    public IteratorPipeline<T> limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("limit不能为负数: " + maxSize);
+        }
+        List<StageSpec> next = new ArrayList<>(stages);
+        next.add(new LimitSpec(maxSize));
+        return new IteratorPipeline<>(source, next);
+    }
+
+    /**
+     * 创建执行该流水线的迭代器
+     * 每个迭代器持有独立的统计信息和计数，可以在不同线程中分别使用
+     *
+     * @return 新的迭代器
+     */
+    public Iterator<T> iterator() {
+        Stage[] instances = new Stage[stages.size()];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = stages.get(i).newStage();
+        }
+        return new PipelineIterator<>(source.createIterator(), instances);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IteratorPipeline{stages=%d}", stages.size());
+    }
+
+    /**
+     * 流水线阶段的描述，创建迭代器时实例化为带状态的{@link Stage}
+     */
+    private interface StageSpec {
+        Stage newStage();
+    }
+
+    private static final class FilterSpec implements StageSpec {
+        private final List<Predicate<?>> predicates;
+
+        FilterSpec(List<Predicate<?>> predicates) {
+            this.predicates = predicates;
+        }
+
+        FilterSpec with(Predicate<?> predicate) {
+            List<Predicate<?>> merged = new ArrayList<>(predicates);
+            merged.add(predicate);
+            return new FilterSpec(merged);
+        }
+
+        @Override
+        public Stage newStage() {
+            return new FilterGroup(predicates);
+        }
+    }
+
+    private static final class MapSpec implements StageSpec {
+        private final Function<?, ?> mapper;
+
+        MapSpec(Function<?, ?> mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Stage newStage() {
+            Function<Object, Object> function = (Function<Object, Object>) mapper;
+            return new Stage() {
+                @Override
+                Object apply(Object element) {
+                    return function.apply(element);
+                }
+            };
+        }
+    }
+
+    private static final class LimitSpec implements StageSpec {
+        private final long maxSize;
+
+        LimitSpec(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public Stage newStage() {
+            return new LimitStage(maxSize);
+        }
+    }
+
+    /**
+     * 带状态的流水线阶段
+     */
+    private abstract static class Stage {
+        /**
+         * 元素被丢弃时返回的标记
+         */
+        static final Object REJECTED = new Object();
+
+        /**
+         * 处理一个元素
+         *
+         * @param element 输入元素
+         * @return 输出元素，被丢弃时返回{@link #REJECTED}
+         */
+        abstract Object apply(Object element);
+
+        /**
+         * 此阶段是否已经不再接受任何元素
+         *
+         * @return 如果不再接受返回true
+         */
+        boolean isExhausted() {
+            return false;
+        }
+    }
+
+    /**
+     * limit阶段
+     */
+    private static final class LimitStage extends Stage {
+        private final long maxSize;
+        private long passed;
+
+        LimitStage(long maxSize) {
+            this.maxSize = maxSize;
+            this.passed = 0;
+        }
+
+        @Override
+        Object apply(Object element) {
+            if (passed >= maxSize) {
+                return REJECTED;
+            }
+            passed++;
+            return element;
+        }
+
+        @Override
+        boolean isExhausted() {
+            return passed >= maxSize;
+        }
+    }
+
+    /**
+     * 自适应过滤条件组
+     * 平时按当前顺序短路求值，不做任何统计；每SAMPLE_INTERVAL个元素采样一次，
+     * 采样时对每个条件都求值并计时，得到各自的通过率和平均耗时。
+     * 采样数依次达到16、32、64……时按 平均耗时 / 淘汰率 从小到大重新排序，
+     * 越往后重排越少，顺序稳定后几乎没有额外开销。
+     */
+    private static final class FilterGroup extends Stage {
+        private static final int SAMPLE_INTERVAL = 64;
+        private static final int FIRST_REORDER = 16;
+
+        private final Predicate<Object>[] predicates;
+        private final long[] sampledNanos;
+        private final long[] sampledPassed;
+        private long elementCount;
+        private long sampleCount;
+        private long nextReorder;
+
+        @SuppressWarnings("unchecked")
+        FilterGroup(List<Predicate<?>> predicates) {
+            int n = predicates.size();
+            this.predicates = (Predicate<Object>[]) predicates.toArray(new Predicate<?>[0]);
+            this.sampledNanos = new long[n];
+            this.sampledPassed = new long[n];
+            this.nextReorder = FIRST_REORDER;
+        }
+
+        @Override
+        Object apply(Object element) {
+            if ((++elementCount & (SAMPLE_INTERVAL - 1)) == 0 && predicates.length > 1) {
+                return sample(element) ? element : REJECTED;
+            }
+            Predicate<Object>[] tests = predicates;
+            for (int i = 0; i < tests.length; i++) {
+                if (!tests[i].test(element)) {
+                    return REJECTED;
+                }
+            }
+            return element;
+        }
+
+        private boolean sample(Object element) {
+            boolean accepted = true;
+            for (int i = 0; i < predicates.length; i++) {
+                long start = System.nanoTime();
+                boolean result = predicates[i].test(element);
+                sampledNanos[i] += System.nanoTime() - start;
+                if (result) {
+                    sampledPassed[i]++;
+                } else {
+                    accepted = false;
+                }
+            }
+            if (++sampleCount == nextReorder) {
+                reorder();
+                nextReorder <<= 1;
+            }
+            return accepted;
+        }
+
+        /**
+         * 按 平均耗时 / 淘汰率 升序重排（插入排序，条件数量很少），统计数据随条件一起移动
+         */
+        private void reorder() {
+            int n = predicates.length;
+            double[] ranks = new double[n];
+            for (int i = 0; i < n; i++) {
+                ranks[i] = rank(i);
+            }
+            for (int i = 1; i < n; i++) {
+                for (int j = i; j > 0 && ranks[j] < ranks[j - 1]; j--) {
+                    swap(j, j - 1);
+                    double rank = ranks[j];
+                    ranks[j] = ranks[j - 1];
+                    ranks[j - 1] = rank;
+                }
+            }
+        }
+
+        private double rank(int i) {
+            double rejectRate = 1.0 - (double) sampledPassed[i] / sampleCount;
+            if (rejectRate <= 0) {
+                return Double.MAX_VALUE;
+            }
+            double cost = (double) sampledNanos[i] / sampleCount + 1.0;
+            return cost / rejectRate;
+        }
+
+        private void swap(int a, int b) {
+            Predicate<Object> predicate = predicates[a];
+            predicates[a] = predicates[b];
+            predicates[b] = predicate;
+            swap(sampledNanos, a, b);
+            swap(sampledPassed, a, b);
+        }
+
+        private static void swap(long[] array, int a, int b) {
+            long value = array[a];
+            array[a] = array[b];
+            array[b] = value;
+        }
+    }
+
+    /**
+     * 流水线迭代器
+     * 与{@link FilterIterator}一样预先查找下一个输出元素，但只在需要时才查找
+     */
+    private static final class PipelineIterator<T> implements Iterator<T> {
+        private final Iterator<?> source;
+        private final Stage[] stages;
+        private final Stage[] limits;
+        private final int firstLimitIndex;
+        private Object nextElement;
+        private boolean hasNextElement;
+        private boolean finished;
+
+        PipelineIterator(Iterator<?> source, Stage[] stages) {
+            this.source = source;
+            this.stages = stages;
+            List<Stage> limitStages = new ArrayList<>();
+            int firstLimit = stages.length;
+            for (int i = 0; i < stages.length; i++) {
+                if (stages[i] instanceof LimitStage) {
+                    limitStages.add(stages[i]);
+                    firstLimit = Math.min(firstLimit, i);
+                }
+            }
+            this.limits = limitStages.toArray(new Stage[0]);
+            this.firstLimitIndex = firstLimit;
+            this.hasNextElement = false;
+            this.finished = isAnyLimitReached();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!hasNextElement && !finished) {
+                findNextElement();
+            }
+            return hasNextElement;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多满足条件的元素");
+            }
+            T current = (T) nextElement;
+            nextElement = null;
+            hasNextElement = false;
+            return current;
+        }
+
+        /**
+         * 从上游拉取元素直到有一个通过全部阶段，或者某个limit已满
+         */
+        private void findNextElement() {
+            while (source.hasNext()) {
+                Object element = source.next();
+                int i = 0;
+                while (i < stages.length && (element = stages[i].apply(element)) != Stage.REJECTED) {
+                    i++;
+                }
+                // 只有越过了第一个limit的元素才可能让某个limit达到上限
+                if (i > firstLimitIndex && isAnyLimitReached()) {
+                    finished = true;
+                }
+                if (i == stages.length) {
+                    nextElement = element;
+                    hasNextElement = true;
+                    return;
+                }
+                if (finished) {
+                    return;
+                }
+            }
+            finished = true;
+        }
+
+        private boolean isAnyLimitReached() {
+            for (Stage stage : limits) {
+                if (stage.isExhausted()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PipelineIterator{hasNextElement=%s, finished=%s, stages=%d}", hasNextElement, finished, stages.length);
+        }
+    }
+}
@@ -0,0 +1,686 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.RandomAccessAggregate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 惰性聚合工具类
+ * 元素在遍历时才由生成函数、文件或区间产生，不需要先把全部元素放进集合；
+ * 组合操作（concat、zip、flatMap、take/drop、window）同样返回聚合，
+ * 每次{@link Aggregate#createIterator()}都从头重新计算，遍历过程中只保留当前元素（window保留一个窗口）。
+ * 
+ * 返回的聚合可以直接交给{@link FilterIterator}、{@link ReverseIterator#of(Aggregate)}等使用；
+ * 文件行等持有资源的迭代器实现{@link AutoCloseable}，遍历结束时自动关闭，
+ * 提前放弃遍历时应调用close()，外层的组合迭代器会把close()传递给上游。
+ * 
+ * <pre>
+ * Aggregate&lt;Book&gt; books = LazyAggregates.map(LazyAggregates.lines(dump),
+ *         line -&gt; new Book(line.substring(0, line.indexOf('\t')), line.substring(line.indexOf('\t') + 1)));
+ * Iterator&lt;Book&gt; iterator = new FilterIterator&lt;&gt;(LazyAggregates.take(books, 100).createIterator(),
+ *         book -&gt; book.getAuthor().equals("GoF"));
+ * </pre>
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class LazyAggregates {
+    
+    /**
+     * 读取文件行时的缓冲区大小
+     */
+    private static final int LINE_BUFFER_SIZE = 1 << 16;
+    
+    private LazyAggregates() {
+    }
+    
+    /**
+     * 由种子和后继函数生成的无限序列：seed, next(seed), next(next(seed)), ...
+     * 
+     * @param seed 第一个元素
+     * @param next 由前一个元素计算后一个元素的函数
+     * @param <T> 元素类型
+     * @return 惰性聚合
+     */
+    public static <T> Aggregate<T> iterate(T seed, UnaryOperator<T> next) {
+        return iterate(seed, element -> true, next);
+    }
+    
+    /**
+     * 由种子和后继函数生成的有限序列，遇到第一个不满足hasNext的元素时结束
+     * 
+     * @param seed 第一个元素
+     * @param hasNext 元素是否属于序列
+     * @param next 由前一个元素计算后一个元素的函数
+     * @param <T> 元素类型
+     * @return 惰性聚合
+     */
+    public static <T> Aggregate<T> iterate(T seed, Predicate<? super T> hasNext, UnaryOperator<T> next) {
+        Objects.requireNonNull(hasNext);
+        Objects.requireNonNull(next);
+        return () -> new GeneratorIterator<>(seed, hasNext, next);
+    }
+    
+    /**
+     * 每个元素都调用一次supplier得到的无限序列
+     * 每次创建迭代器都使用同一个supplier，序列内容取决于supplier自身的状态
+     * 
+     * @param supplier 元素生成函数
+     * @param <T> 元素类型
+     * @return 惰性聚合
+     */
+    public static <T> Aggregate<T> generate(Supplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+        return () -> new SupplierIterator<>(supplier);
+    }
+    
+    /**
+     * 左闭右开的整数区间[from, to)
+     * 区间可以按位置访问，因此{@link ReverseIterator}直接按索引倒序读取，不缓冲任何元素
+     * 
+     * @param from 起始值（包含）
+     * @param to 结束值（不包含）
+     * @return 区间聚合
+     */
+    public static RandomAccessAggregate<Integer> range(int from, int to) {
+        if (from > to || (long) to - from > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("无效的区间: [" + from + ", " + to + ")");
+        }
+        return new Range(from, to);
+    }
+    
+    /**
+     * 按UTF-8逐行读取文件
+     * 每次创建迭代器都重新打开文件，读到末尾时关闭，内存占用只有读缓冲区和当前行
+     * 
+     * @param path 文件路径
+     * @return 文件行的惰性聚合
+     */
+    public static Aggregate<String> lines(Path path) {
+        return lines(path, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 按指定字符集逐行读取文件
+     * 打开或读取失败时抛出{@link UncheckedIOException}
+     * 
+     * @param path 文件路径
+     * @param charset 字符集
+     * @return 文件行的惰性聚合
+     */
+    public static Aggregate<String> lines(Path path, Charset charset) {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(charset);
+        return () -> new LineIterator(path, charset);
+    }
+    
+    /**
+     * 对每个元素应用映射函数
+     * 
+     * @param source 数据源
+     * @param mapper 映射函数
+     * @param <T> 原始元素类型
+     * @param <R> 映射后的元素类型
+     * @return 惰性聚合
+     */
+    public static <T, R> Aggregate<R> map(Aggregate<T> source, Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(mapper);
+        return () -> new MapIterator<>(source.createIterator(), mapper);
+    }
+    
+    /**
+     * 只保留满足条件的元素，迭代器为{@link FilterIterator}
+     * 
+     * @param source 数据源
+     * @param filter 过滤条件
+     * @param <T> 元素类型
+     * @return 惰性聚合
+     */
+    public static <T> Aggregate<T> filter(Aggregate<T> source, Predicate<T> filter) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(filter);
+        return () -> new FilterIterator<>(source.createIterator(), filter);
+    }
+    
+    /**
+     * 倒序遍历，迭代器由{@link ReverseIterator#of(Aggregate)}创建：
+     * 可按位置访问的数据源按索引倒序，其他数据源分块缓冲
+     * 
+     * @param source 数据源，遍历期间不应被修改
+     * @param <T> 元素类型
+     * @return 惰性聚合
+     */
+    public static <T> Aggregate<T> reverse(Aggregate<T> source) {
+        Objects.requireNonNull(source);
+        return () -> ReverseIterator.of(source);
+    }
+    
+    /**
+     * 依次遍历多个数据源，前一个遍历完才创建下一个的迭代器
+     * 
+     * @param sources 数据源
+     * @param <T> 元素类型
+     * @return 拼接遍历的{@link CompositeAggregate}
+     */
+    @SafeVarargs
+    public static <T> Aggregate<T> concat(Aggregate<? extends T>... sources) {
+        // 逐个复制元素，不把可变参数数组本身传出去
+        List<Aggregate<? extends T>> shards = new ArrayList<>(sources.length);
+        for (Aggregate<? extends T> source : sources) {
+            shards.add(source);
+        }
+        return new CompositeAggregate<T>(shards);
+    }
+    
+    /**
+     * 把两个数据源的元素按位置两两合并，较短的一方结束时结束
+     * 
+     * @param left 左侧数据源
+     * @param right 右侧数据源
+     * @param combiner 合并函数
+     * @param <A> 左侧元素类型
+     * @param <B> 右侧元素类型
+     * @param <R> 合并后的元素类型
+     * @return 惰性聚合
+     */
+    public static <A, B, R> Aggregate<R> zip(Aggregate<A> left, Aggregate<B> right,
+                                             BiFunction<? super A, ? super B, ? extends R> combiner) {
+        Objects.requireNonNull(left);
+        Objects.requireNonNull(right);
+        Objects.requireNonNull(combiner);
+        return () -> new ZipIterator<>(left.createIterator(), right.createIterator(), combiner);
+    }
+    
+    /**
+     * 把每个元素展开为一个聚合并依次遍历，同一时刻只持有一个内层迭代器
+     * 
+     * @param source 数据源
+     * @param mapper 展开函数
+     * @param <T> 原始元素类型
+     * @param <R> 展开后的元素类型
+     * @return 惰性聚合
+     */
+    public static <T, R> Aggregate<R> flatMap(Aggregate<T> source,
+                                              Function<? super T, ? extends Aggregate<? extends R>> mapper) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(mapper);
+        return () -> new FlatMapIterator<>(source.createIterator(), mapper);
+    }
+    
+    /**
+     * 只保留前maxSize个元素，取够之后不再从上游读取并关闭上游迭代器
+     * 
+     * @param source 数据源
+     * @param maxSize 最大数量
+     * @param <T> 元素类型
+     * @return 惰性聚合
+     */
+    public static <T> Aggregate<T> take(Aggregate<T> source, long maxSize) {
+        Objects.requireNonNull(source);
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("数量不能为负数: " + maxSize);
+        }
+        return () -> new TakeIterator<>(source.createIterator(), maxSize);
+    }
+    
+    /**
+     * 跳过前n个元素
+     * 通过上游迭代器的{@link Iterator#skip(long)}跳过，能按位置定位的迭代器不会逐个读取
+     * 
+     * @param source 数据源
+     * @param n 跳过的数量
+     * @param <T> 元素类型
+     * @return 惰性聚合
+     */
+    public static <T> Aggregate<T> drop(Aggregate<T> source, long n) {
+        Objects.requireNonNull(source);
+        if (n < 0) {
+            throw new IllegalArgumentException("数量不能为负数: " + n);
+        }
+        return () -> {
+            Iterator<T> iterator = source.createIterator();
+            iterator.skip(n);
+            return iterator;
+        };
+    }
+    
+    /**
+     * 不重叠的固定大小窗口，最后一个窗口可能不足size个元素
+     * 
+     * @param source 数据源
+     * @param size 窗口大小
+     * @param <T> 元素类型
+     * @return 窗口的惰性聚合
+     */
+    public static <T> Aggregate<List<T>> window(Aggregate<T> source, int size) {
+        return window(source, size, size, true);
+    }
+    
+    /**
+     * 滑动窗口：每隔step个元素开始一个大小为size的窗口
+     * step小于size时窗口重叠，大于size时窗口之间的元素被跳过。
+     * 每个窗口是独立的不可修改列表，遍历时只缓冲一个窗口的元素。
+     * 
+     * @param source 数据源
+     * @param size 窗口大小
+     * @param step 相邻窗口起点的间隔
+     * @param partial 是否输出末尾不足size个元素的窗口
+     * @param <T> 元素类型
+     * @return 窗口的惰性聚合
+     */
+    public static <T> Aggregate<List<T>> window(Aggregate<T> source, int size, int step, boolean partial) {
+        Objects.requireNonNull(source);
+        if (size <= 0 || step <= 0) {
+            throw new IllegalArgumentException("窗口大小和间隔必须为正数: size=" + size + ", step=" + step);
+        }
+        return () -> new WindowIterator<>(source.createIterator(), size, step, partial);
+    }
+    
+    /**
+     * 关闭实现了AutoCloseable的迭代器
+     */
+    static void closeIterator(Iterator<?> iterator) {
+        if (iterator instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) iterator).close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("关闭迭代器失败", e);
+            }
+        }
+    }
+    
+    /**
+     * 惰性迭代器的公共部分
+     * 子类在fetch()中计算下一个元素并写入pending，没有更多元素时返回false；
+     * 结束或调用close()之后释放上游资源
+     */
+    private abstract static class LazyIterator<T> implements Iterator<T>, AutoCloseable {
+        T pending;
+        private boolean ready;
+        private boolean done;
+        
+        /**
+         * 计算下一个元素
+         * 
+         * @return 如果得到了下一个元素返回true
+         */
+        abstract boolean fetch();
+        
+        /**
+         * 释放上游迭代器或文件等资源
+         */
+        void release() {
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!ready && !done) {
+                ready = fetch();
+                if (!ready) {
+                    close();
+                }
+            }
+            return ready;
+        }
+        
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            T element = pending;
+            pending = null;
+            ready = false;
+            return element;
+        }
+        
+        /**
+         * 丢弃已经计算好但还没有返回的元素
+         * 
+         * @return 如果有被丢弃的元素返回true
+         */
+        boolean discardPending() {
+            if (!ready) {
+                return false;
+            }
+            pending = null;
+            ready = false;
+            return true;
+        }
+        
+        @Override
+        public void close() {
+            if (!done) {
+                done = true;
+                ready = false;
+                pending = null;
+                release();
+            }
+        }
+    }
+    
+    private static final class GeneratorIterator<T> extends LazyIterator<T> {
+        private final Predicate<? super T> hasNext;
+        private final UnaryOperator<T> next;
+        private T current;
+        private boolean started;
+        
+        GeneratorIterator(T seed, Predicate<? super T> hasNext, UnaryOperator<T> next) {
+            this.current = seed;
+            this.hasNext = hasNext;
+            this.next = next;
+        }
+        
+        @Override
+        boolean fetch() {
+            if (started) {
+                current = next.apply(current);
+            }
+            started = true;
+            if (!hasNext.test(current)) {
+                current = null;
+                return false;
+            }
+            pending = current;
+            return true;
+        }
+    }
+    
+    private static final class SupplierIterator<T> extends LazyIterator<T> {
+        private final Supplier<? extends T> supplier;
+        
+        SupplierIterator(Supplier<? extends T> supplier) {
+            this.supplier = supplier;
+        }
+        
+        @Override
+        boolean fetch() {
+            pending = supplier.get();
+            return true;
+        }
+    }
+    
+    private static final class LineIterator extends LazyIterator<String> {
+        private final BufferedReader reader;
+        
+        LineIterator(Path path, Charset charset) {
+            try {
+                this.reader = new BufferedReader(new InputStreamReader(Files.newInputStream(path), charset),
+                        LINE_BUFFER_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        boolean fetch() {
+            try {
+                pending = reader.readLine();
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            return pending != null;
+        }
+        
+        @Override
+        void release() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+    private static final class MapIterator<T, R> extends LazyIterator<R> {
+        private final Iterator<T> source;
+        private final Function<? super T, ? extends R> mapper;
+        
+        MapIterator(Iterator<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+        
+        @Override
+        boolean fetch() {
+            if (!source.hasNext()) {
+                return false;
+            }
+            pending = mapper.apply(source.next());
+            return true;
+        }
+        
+        /**
+         * 跳过的元素不经过映射函数，直接由上游跳过
+         */
+        @Override
+        public long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            long skipped = discardPending() ? 1 : 0;
+            return skipped + source.skip(n - skipped);
+        }
+        
+        @Override
+        void release() {
+            closeIterator(source);
+        }
+    }
+    
+    private static final class ZipIterator<A, B, R> extends LazyIterator<R> {
+        private final Iterator<A> left;
+        private final Iterator<B> right;
+        private final BiFunction<? super A, ? super B, ? extends R> combiner;
+        
+        ZipIterator(Iterator<A> left, Iterator<B> right, BiFunction<? super A, ? super B, ? extends R> combiner) {
+            this.left = left;
+            this.right = right;
+            this.combiner = combiner;
+        }
+        
+        @Override
+        boolean fetch() {
+            if (!left.hasNext() || !right.hasNext()) {
+                return false;
+            }
+            pending = combiner.apply(left.next(), right.next());
+            return true;
+        }
+        
+        @Override
+        void release() {
+            try {
+                closeIterator(left);
+            } finally {
+                closeIterator(right);
+            }
+        }
+    }
+    
+    private static final class FlatMapIterator<T, R> extends LazyIterator<R> {
+        private final Iterator<T> source;
+        private final Function<? super T, ? extends Aggregate<? extends R>> mapper;
+        private Iterator<? extends R> inner;
+        
+        FlatMapIterator(Iterator<T> source, Function<? super T, ? extends Aggregate<? extends R>> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+        
+        @Override
+        boolean fetch() {
+            while (inner == null || !inner.hasNext()) {
+                if (!source.hasNext()) {
+                    return false;
+                }
+                inner = mapper.apply(source.next()).createIterator();
+            }
+            pending = inner.next();
+            return true;
+        }
+        
+        @Override
+        void release() {
+            try {
+                if (inner != null) {
+                    closeIterator(inner);
+                }
+            } finally {
+                closeIterator(source);
+            }
+        }
+    }
+    
+    private static final class TakeIterator<T> extends LazyIterator<T> {
+        private final Iterator<T> source;
+        private long remaining;
+        
+        TakeIterator(Iterator<T> source, long maxSize) {
+            this.source = source;
+            this.remaining = maxSize;
+        }
+        
+        @Override
+        boolean fetch() {
+            if (remaining == 0 || !source.hasNext()) {
+                return false;
+            }
+            remaining--;
+            pending = source.next();
+            return true;
+        }
+        
+        @Override
+        void release() {
+            closeIterator(source);
+        }
+    }
+    
+    private static final class WindowIterator<T> extends LazyIterator<List<T>> {
+        private final Iterator<T> source;
+        private final int size;
+        private final int step;
+        private final boolean partial;
+        private final ArrayDeque<T> buffer;
+        private boolean started;
+        
+        WindowIterator(Iterator<T> source, int size, int step, boolean partial) {
+            this.source = source;
+            this.size = size;
+            this.step = step;
+            this.partial = partial;
+            this.buffer = new ArrayDeque<>(Math.min(size, 1024));
+        }
+        
+        @Override
+        boolean fetch() {
+            if (started) {
+                // 去掉上一个窗口开头的step个元素，step超过窗口大小时再跳过中间的元素
+                int dropped = Math.min(step, buffer.size());
+                for (int i = 0; i < dropped; i++) {
+                    buffer.pollFirst();
+                }
+                if (step > size) {
+                    source.skip(step - size);
+                }
+            }
+            started = true;
+            while (buffer.size() < size && source.hasNext()) {
+                buffer.addLast(source.next());
+            }
+            if (buffer.isEmpty() || (buffer.size() < size && !partial)) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            T[] window = (T[]) buffer.toArray();
+            pending = Collections.unmodifiableList(Arrays.asList(window));
+            return true;
+        }
+        
+        @Override
+        void release() {
+            buffer.clear();
+            closeIterator(source);
+        }
+    }
+    
+    /**
+     * 整数区间
+     */
+    private static final class Range implements RandomAccessAggregate<Integer> {
+        private final int from;
+        private final int to;
+        
+        Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        public int getSize() {
+            return to - from;
+        }
+        
+        @Override
+        public Integer getElement(int index) {
+            return from + Objects.checkIndex(index, getSize());
+        }
+        
+        @Override
+        public Iterator<Integer> createIterator() {
+            return new Iterator<Integer>() {
+                private int current = from;
+                
+                @Override
+                public boolean hasNext() {
+                    return current < to;
+                }
+                
+                @Override
+                public Integer next() {
+                    if (current >= to) {
+                        throw new IndexOutOfBoundsException("没有更多元素");
+                    }
+                    return current++;
+                }
+                
+                @Override
+                public long skip(long n) {
+                    int step = (int) Math.max(Math.min(n, (long) to - current), 0);
+                    current += step;
+                    return step;
+                }
+            };
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Range[%d, %d)", from, to);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.LongIterator;
+import java.util.Arrays;
+
+/**
+ * long反向迭代器
+ * {@link ReverseIterator}的原始类型版本，元素收集在long数组中而不是装箱列表中
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class LongReverseIterator implements LongIterator {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private final long[] elements;
+    private int currentIndex;
+    
+    /**
+     * 构造函数
+     * 
+     * @param originalIterator 原始迭代器
+     */
+    public LongReverseIterator(LongIterator originalIterator) {
+        long[] buffer = new long[INITIAL_CAPACITY];
+        int size = 0;
+        
+        // 先将所有元素收集到数组中
+        while (originalIterator.hasNext()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = originalIterator.nextLong();
+        }
+        
+        this.elements = buffer;
+        this.currentIndex = size - 1;
+    }
+    
+    /**
+     * 基于现有数组创建反向迭代器
+     * 
+     * @param elements 元素数组
+     */
+    public LongReverseIterator(long[] elements) {
+        this.elements = elements.clone();
+        this.currentIndex = this.elements.length - 1;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return currentIndex >= 0;
+    }
+    
+    /**
+     * 获取上一个元素（反向遍历）
+     * 
+     * @return 上一个元素
+     * @throws IndexOutOfBoundsException 如果没有更多元素时抛出异常
+     */
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException("没有更多元素可以反向迭代");
+        }
+        return elements[currentIndex--];
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("LongReverseIterator{currentIndex=%d, hasNext=%s}", 
+                           currentIndex, hasNext());
+    }
+}
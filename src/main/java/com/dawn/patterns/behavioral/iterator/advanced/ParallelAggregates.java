@@ -0,0 +1,183 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * 并行遍历工具类
+ * 基于{@link SplittableIterator}递归拆分聚合，在Fork/Join线程池中并行处理各部分
+ *
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class ParallelAggregates {
+
+    /**
+     * 大小未知时，每个任务顺序处理的元素数量下限
+     */
+    private static final long DEFAULT_THRESHOLD = 1 << 12;
+
+    private ParallelAggregates() {
+    }
+
+    /**
+     * 在公共线程池中并行地对每个元素执行操作
+     * 元素的处理顺序不确定，action必须是线程安全的
+     *
+     * @param aggregate 要遍历的聚合
+     * @param action 要执行的操作
+     * @param <T> 元素类型
+     */
+    public static <T> void parallelForEach(Aggregate<T> aggregate, Consumer<? super T> action) {
+        parallelForEach(aggregate, action, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定线程池中并行地对每个元素执行操作
+     *
+     * @param aggregate 要遍历的聚合
+     * @param action 要执行的操作
+     * @param pool 线程池
+     * @param <T> 元素类型
+     */
+    public static <T> void parallelForEach(Aggregate<T> aggregate, Consumer<? super T> action, ForkJoinPool pool) {
+        Objects.requireNonNull(action);
+        SplittableIterator<T> iterator = aggregate.createSplittableIterator();
+        pool.invoke(new ForEachTask<>(iterator, action, threshold(iterator, pool)));
+    }
+
+    /**
+     * 在公共线程池中并行归约
+     * 每个任务从identity开始用accumulator累积自己的部分，再按原始顺序用combiner合并
+     *
+     * @param aggregate 要遍历的聚合
+     * @param identity 初始值，必须是combiner的单位元
+     * @param accumulator 累积函数
+     * @param combiner 合并函数
+     * @param <T> 元素类型
+     * @param <R> 结果类型
+     * @return 归约结果
+     */
+    public static <T, R> R parallelReduce(Aggregate<T> aggregate, R identity,
+                                          BiFunction<R, ? super T, R> accumulator,
+                                          BinaryOperator<R> combiner) {
+        return parallelReduce(aggregate, identity, accumulator, combiner, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定线程池中并行归约
+     *
+     * @param aggregate 要遍历的聚合
+     * @param identity 初始值，必须是combiner的单位元
+     * @param accumulator 累积函数
+     * @param combiner 合并函数
+     * @param pool 线程池
+     * @param <T> 元素类型
+     * @param <R> 结果类型
+     * @return 归约结果
+     */
+    public static <T, R> R parallelReduce(Aggregate<T> aggregate, R identity,
+                                          BiFunction<R, ? super T, R> accumulator,
+                                          BinaryOperator<R> combiner, ForkJoinPool pool) {
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        SplittableIterator<T> iterator = aggregate.createSplittableIterator();
+        return pool.invoke(new ReduceTask<>(iterator, identity, accumulator, combiner, threshold(iterator, pool)));
+    }
+
+    /**
+     * 计算顺序处理的阈值：大小已知时按每个线程约4个任务划分
+     */
+    private static long threshold(SplittableIterator<?> iterator, ForkJoinPool pool) {
+        long size = iterator.estimateSize();
+        if (size == SplittableIterator.UNKNOWN_SIZE) {
+            return DEFAULT_THRESHOLD;
+        }
+        return Math.max(size / ((long) pool.getParallelism() << 2), 1);
+    }
+
+    /**
+     * 并行遍历任务
+     */
+    private static final class ForEachTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SplittableIterator<T> iterator;
+        private final Consumer<? super T> action;
+        private final long threshold;
+
+        ForEachTask(SplittableIterator<T> iterator, Consumer<? super T> action, long threshold) {
+            this.iterator = iterator;
+            this.action = action;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            // 前一部分交给子任务，当前任务继续拆分剩余部分，避免递归过深
+            List<ForEachTask<T>> forked = new ArrayList<>();
+            SplittableIterator<T> prefix;
+            while (iterator.estimateSize() > threshold && (prefix = iterator.trySplit()) != null) {
+                ForEachTask<T> left = new ForEachTask<>(prefix, action, threshold);
+                left.fork();
+                forked.add(left);
+            }
+            iterator.forEachRemaining(action);
+            for (ForEachTask<T> task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * 并行归约任务
+     */
+    private static final class ReduceTask<T, R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final SplittableIterator<T> iterator;
+        private final R identity;
+        private final BiFunction<R, ? super T, R> accumulator;
+        private final BinaryOperator<R> combiner;
+        private final long threshold;
+
+        ReduceTask(SplittableIterator<T> iterator, R identity, BiFunction<R, ? super T, R> accumulator,
+                   BinaryOperator<R> combiner, long threshold) {
+            this.iterator = iterator;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected R compute() {
+            List<ReduceTask<T, R>> forked = new ArrayList<>();
+            SplittableIterator<T> prefix;
+            while (iterator.estimateSize() > threshold && (prefix = iterator.trySplit()) != null) {
+                ReduceTask<T, R> left = new ReduceTask<>(prefix, identity, accumulator, combiner, threshold);
+                left.fork();
+                forked.add(left);
+            }
+            R result = identity;
+            while (iterator.hasNext()) {
+                result = accumulator.apply(result, iterator.next());
+            }
+            // 子任务按拆分顺序覆盖越来越靠后的区间，从后往前合并以保持原始顺序
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                result = combiner.apply(forked.get(i).join(), result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 预取聚合
+ * 把任意聚合包装为预取版本：每次创建迭代器都在后台线程中提前读取源聚合的元素，
+ * 调用方处理元素的时间与数据源的等待时间重叠。源聚合本身不需要任何修改。
+ * 
+ * <pre>
+ * Aggregate&lt;Book&gt; remote = new PrefetchingAggregate&lt;&gt;(slowCatalog, 64);
+ * try (PrefetchingIterator&lt;Book&gt; iterator = remote.createIterator()) {
+ *     while (iterator.hasNext()) {
+ *         process(iterator.next());
+ *     }
+ * }
+ * </pre>
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class PrefetchingAggregate<T> implements Aggregate<T> {
+    
+    private final Aggregate<T> source;
+    private final int bufferSize;
+    private final ThreadFactory threadFactory;
+    
+    /**
+     * 构造函数
+     * 
+     * @param source 源聚合
+     * @param bufferSize 每个迭代器最多预取的元素数量
+     */
+    public PrefetchingAggregate(Aggregate<T> source, int bufferSize) {
+        this(source, bufferSize, PrefetchingIterator.DEFAULT_THREAD_FACTORY);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param source 源聚合
+     * @param bufferSize 每个迭代器最多预取的元素数量
+     * @param threadFactory 创建预取线程的工厂
+     */
+    public PrefetchingAggregate(Aggregate<T> source, int bufferSize, ThreadFactory threadFactory) {
+        if (source == null || threadFactory == null) {
+            throw new IllegalArgumentException("源聚合和线程工厂不能为空");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("预取数量必须大于0: " + bufferSize);
+        }
+        this.source = source;
+        this.bufferSize = bufferSize;
+        this.threadFactory = threadFactory;
+    }
+    
+    /**
+     * 创建预取迭代器，创建后立即开始在后台读取源聚合
+     * 
+     * @return 新的预取迭代器，没有遍历完就放弃时应调用close()
+     */
+    @Override
+    public PrefetchingIterator<T> createIterator() {
+        return new PrefetchingIterator<>(source.createIterator(), bufferSize, threadFactory);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PrefetchingAggregate{bufferSize=%d, source=%s}", bufferSize, source);
+    }
+}
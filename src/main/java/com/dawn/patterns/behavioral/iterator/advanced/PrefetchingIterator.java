@@ -0,0 +1,183 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 预取迭代器
+ * 在后台线程中提前从源迭代器读取元素，放入容量为bufferSize的有界缓冲区，
+ * 调用方处理当前元素的同时，后台线程已经在等待下一个元素，适合每次next()都很慢的数据源（磁盘、远程服务）。
+ * 缓冲区满时后台线程阻塞，最多比调用方领先bufferSize个元素。
+ * 
+ * 运行在Java 21及以上时后台线程为虚拟线程，否则为守护平台线程。
+ * 源迭代器的异常会在调用方的hasNext()/next()中原样抛出。
+ * 没有遍历完就放弃时应调用{@link #close()}，否则后台线程会一直阻塞在已满的缓冲区上。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class PrefetchingIterator<T> implements Iterator<T>, AutoCloseable {
+    
+    /**
+     * 默认的后台线程工厂：优先使用虚拟线程
+     */
+    static final ThreadFactory DEFAULT_THREAD_FACTORY = defaultThreadFactory();
+    
+    /**
+     * 缓冲区中代表null元素和遍历结束的标记
+     */
+    private static final Object NULL = new Object();
+    private static final Object END = new Object();
+    
+    private final BlockingQueue<Object> buffer;
+    private final Thread producer;
+    private Object nextElement;
+    private boolean finished;
+    
+    /**
+     * 构造函数，立即开始在后台预取
+     * 
+     * @param source 源迭代器，此后只能由预取线程访问
+     * @param bufferSize 最多预取的元素数量
+     */
+    public PrefetchingIterator(Iterator<T> source, int bufferSize) {
+        this(source, bufferSize, DEFAULT_THREAD_FACTORY);
+    }
+    
+    /**
+     * 构造函数，立即开始在后台预取
+     * 
+     * @param source 源迭代器，此后只能由预取线程访问
+     * @param bufferSize 最多预取的元素数量
+     * @param threadFactory 创建预取线程的工厂
+     */
+    public PrefetchingIterator(Iterator<T> source, int bufferSize, ThreadFactory threadFactory) {
+        if (source == null || threadFactory == null) {
+            throw new IllegalArgumentException("源迭代器和线程工厂不能为空");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("预取数量必须大于0: " + bufferSize);
+        }
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.producer = threadFactory.newThread(() -> prefetch(source));
+        this.producer.start();
+    }
+    
+    /**
+     * 预取线程的主循环：读取源迭代器直到结束、出错或被close()中断
+     */
+    private void prefetch(Iterator<T> source) {
+        try {
+            try {
+                while (source.hasNext()) {
+                    T element = source.next();
+                    buffer.put(element == null ? NULL : element);
+                }
+                buffer.put(END);
+            } catch (RuntimeException | Error e) {
+                buffer.put(new Failure(e));
+            }
+        } catch (InterruptedException e) {
+            // 调用方已经close()，直接退出
+        }
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (nextElement == null && !finished) {
+            Object element = take();
+            if (element == END) {
+                finished = true;
+            } else if (element instanceof Failure) {
+                finished = true;
+                ((Failure) element).rethrow();
+            } else {
+                nextElement = element;
+            }
+        }
+        return nextElement != null;
+    }
+    
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException("没有更多元素");
+        }
+        Object element = nextElement;
+        nextElement = null;
+        @SuppressWarnings("unchecked")
+        T result = element == NULL ? null : (T) element;
+        return result;
+    }
+    
+    /**
+     * 等待预取线程交出下一个元素
+     */
+    private Object take() {
+        try {
+            return buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("等待预取元素时被中断", e);
+        }
+    }
+    
+    /**
+     * 停止预取并丢弃缓冲区中的元素，之后hasNext()返回false
+     * 正阻塞在源迭代器上的预取线程会被中断，能否及时退出取决于源迭代器是否响应中断
+     */
+    @Override
+    public void close() {
+        finished = true;
+        nextElement = null;
+        producer.interrupt();
+        buffer.clear();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PrefetchingIterator{buffered=%d, finished=%s}", buffer.size(), finished);
+    }
+    
+    /**
+     * 通过反射获取虚拟线程工厂，项目仍以Java 17编译，运行在Java 21之前的JVM上时退化为守护平台线程
+     */
+    private static ThreadFactory defaultThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "prefetch-", 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable, "prefetch");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+    
+    /**
+     * 源迭代器抛出的异常，随元素一起按顺序交给调用方
+     */
+    private static final class Failure {
+        private final Throwable cause;
+        
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+        
+        void rethrow() {
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package com.dawn.patterns.behavioral.iterator.advanced;
 
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
 import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.RandomAccessAggregate;
+import com.dawn.patterns.behavioral.iterator.core.ResettableIterator;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * 反向迭代器
  * 以相反的顺序遍历集合元素
+ * 基于可按位置访问的聚合时可以通过reset()重新绑定到另一个聚合，重复使用同一个实例
  * 
  * @param <T> 元素类型
  * @author Dawn
  * @version 1.0.0
  */
-public class ReverseIterator<T> implements Iterator<T> {
+public class ReverseIterator<T> implements ResettableIterator<T, RandomAccessAggregate<T>> {
     
-    private final List<T> elements;
+    private RandomAccessAggregate<T> aggregate;
+    private List<T> elements;
     private int currentIndex;
     
     /**
@@ -23,7 +28,7 @@ public class ReverseIterator<T> implements Iterator<T> {
      * @param originalIterator 原始迭代器
      */
     public ReverseIterator(Iterator<T> originalIterator) {
-        this.elements = new ArrayList<>();
+        List<T> elements = new ArrayList<>();
         
         // 先将所有元素收集到列表中
         while (originalIterator.hasNext()) {
@@ -31,6 +36,7 @@ public class ReverseIterator<T> implements Iterator<T> {
         }
         
         // 从最后一个元素开始
+        this.elements = elements;
         this.currentIndex = elements.size() - 1;
     }
     
@@ -44,6 +50,44 @@ public class ReverseIterator<T> implements Iterator<T> {
         this.currentIndex = this.elements.size() - 1;
     }
     
+    /**
+     * 基于可按位置访问的聚合创建反向迭代器
+     * 直接从最后一个索引向前读取，不复制任何元素；遍历期间聚合不应被修改
+     * 
+     * @param aggregate 可按位置访问的聚合
+     */
+    public ReverseIterator(RandomAccessAggregate<T> aggregate) {
+        this.aggregate = aggregate;
+        this.currentIndex = aggregate.getSize() - 1;
+    }
+    
+    /**
+     * 重新绑定到指定聚合，从最后一个元素开始反向遍历
+     * 
+     * @param aggregate 可按位置访问的聚合
+     */
+    @Override
+    public void reset(RandomAccessAggregate<T> aggregate) {
+        this.aggregate = aggregate;
+        this.elements = null;
+        this.currentIndex = aggregate.getSize() - 1;
+    }
+    
+    /**
+     * 为任意聚合创建反向迭代器
+     * 可按位置访问的聚合按索引倒序读取，其他聚合使用内存有界的{@link ChunkedReverseIterator}
+     * 
+     * @param aggregate 原始聚合
+     * @param <T> 元素类型
+     * @return 反向迭代器
+     */
+    public static <T> Iterator<T> of(Aggregate<T> aggregate) {
+        if (aggregate instanceof RandomAccessAggregate) {
+            return new ReverseIterator<>((RandomAccessAggregate<T>) aggregate);
+        }
+        return new ChunkedReverseIterator<>(aggregate);
+    }
+    
     /**
      * 检查是否还有上一个元素（反向遍历）
      * 
@@ -65,7 +109,8 @@ public class ReverseIterator<T> implements Iterator<T> {
         if (!hasNext()) {
             throw new IndexOutOfBoundsException("没有更多元素可以反向迭代");
         }
-        return elements.get(currentIndex--);
+        int index = currentIndex--;
+        return aggregate != null ? aggregate.getElement(index) : elements.get(index);
     }
     
     
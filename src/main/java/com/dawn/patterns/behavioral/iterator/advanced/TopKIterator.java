@@ -0,0 +1,123 @@
+package com.dawn.patterns.behavioral.iterator.advanced;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * 前K个元素迭代器
+ * 遍历一次原始迭代器，用最多k个元素的堆保留当前最小的k个元素（堆顶是其中最大的一个），
+ * 时间O(N log K)，内存O(min(K, N))，不需要先把全部元素复制到列表中再排序。
+ * 结果按比较器升序返回，相等的元素保持原始顺序。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class TopKIterator<T> implements Iterator<T> {
+    
+    /**
+     * 堆的初始容量上限，k远大于元素数量时堆按需增长，而不是一开始就按k分配
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+    
+    private final Object[] elements;
+    private int currentIndex;
+    
+    /**
+     * 构造函数，立即遍历原始迭代器
+     * 
+     * @param originalIterator 原始迭代器
+     * @param k 最多返回的元素数量
+     * @param comparator 排序规则
+     */
+    public TopKIterator(Iterator<T> originalIterator, int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k不能为负数: " + k);
+        }
+        // 先比较元素，相等时比较原始位置，保证结果稳定
+        Comparator<Entry<T>> order = (a, b) -> {
+            int result = comparator.compare(a.element, b.element);
+            return result != 0 ? result : Long.compare(a.position, b.position);
+        };
+        PriorityQueue<Entry<T>> heap = new PriorityQueue<>(initialCapacity(originalIterator, k), order.reversed());
+        long position = 0;
+        while (originalIterator.hasNext()) {
+            T element = originalIterator.next();
+            if (heap.size() < k) {
+                heap.add(new Entry<>(element, position));
+            } else if (k > 0 && comparator.compare(element, heap.peek().element) < 0) {
+                // 只有比堆顶小的元素才会进入堆，被淘汰的元素不创建任何对象
+                heap.poll();
+                heap.add(new Entry<>(element, position));
+            }
+            position++;
+        }
+        this.elements = new Object[heap.size()];
+        for (int i = elements.length - 1; i >= 0; i--) {
+            elements[i] = heap.poll().element;
+        }
+        this.currentIndex = 0;
+    }
+    
+    /**
+     * 堆的初始容量：不超过k；来源能估计剩余数量时不超过估计值，否则不超过MAX_INITIAL_CAPACITY
+     */
+    private static int initialCapacity(Iterator<?> iterator, int k) {
+        long bound = MAX_INITIAL_CAPACITY;
+        if (iterator instanceof SplittableIterator) {
+            long estimate = ((SplittableIterator<?>) iterator).estimateSize();
+            if (estimate != SplittableIterator.UNKNOWN_SIZE) {
+                bound = estimate;
+            }
+        }
+        return (int) Math.max(Math.min(k, bound), 1);
+    }
+    
+    /**
+     * 取聚合中按比较器排序的前k个元素
+     * 
+     * @param aggregate 原始聚合
+     * @param k 最多返回的元素数量
+     * @param comparator 排序规则
+     * @param <T> 元素类型
+     * @return 前k个元素的迭代器
+     */
+    public static <T> TopKIterator<T> of(Aggregate<T> aggregate, int k, Comparator<? super T> comparator) {
+        return new TopKIterator<>(aggregate.createIterator(), k, comparator);
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return currentIndex < elements.length;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException("没有更多元素");
+        }
+        return (T) elements[currentIndex++];
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("TopKIterator{size=%d, currentIndex=%d}", elements.length, currentIndex);
+    }
+    
+    /**
+     * 堆中的元素及其原始位置
+     */
+    private static final class Entry<T> {
+        private final T element;
+        private final long position;
+        
+        Entry(T element, long position) {
+            this.element = element;
+            this.position = position;
+        }
+    }
+}
@@ -16,4 +16,15 @@ public interface Aggregate<T> {
      * @return 新的迭代器实例
      */
     Iterator<T> createIterator();
+    
+    /**
+     * 创建一个可拆分的迭代器，用于并行遍历
+     * 默认实现基于{@link #createIterator()}按批次拆分（尽力而为），
+     * 支持按位置访问的聚合应重写为按索引区间对半拆分
+     * 
+     * @return 新的可拆分迭代器实例
+     */
+    default SplittableIterator<T> createSplittableIterator() {
+        return new BatchSplittableIterator<>(createIterator());
+    }
 }
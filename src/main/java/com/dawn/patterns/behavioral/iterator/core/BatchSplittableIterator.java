@@ -0,0 +1,140 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 基于普通迭代器的可拆分迭代器
+ * 每次拆分从原始迭代器中取出一批元素放入数组，批次大小逐次递增，
+ * 适用于无法按位置划分的数据结构（例如链表）
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+final class BatchSplittableIterator<T> implements SplittableIterator<T> {
+    
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+    
+    private final Iterator<T> source;
+    private int batchSize;
+    
+    BatchSplittableIterator(Iterator<T> source) {
+        this.source = source;
+        this.batchSize = 0;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return source.hasNext();
+    }
+    
+    @Override
+    public T next() {
+        return source.next();
+    }
+    
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        source.forEachRemaining(action);
+    }
+    
+    @Override
+    public int nextBatch(T[] dst, int off, int len) {
+        return source.nextBatch(dst, off, len);
+    }
+    
+    /**
+     * 从原始迭代器中取出一批元素作为前一部分
+     * 
+     * @return 覆盖这批元素的迭代器，原始迭代器已耗尽时返回null
+     */
+    @Override
+    public SplittableIterator<T> trySplit() {
+        if (!source.hasNext()) {
+            return null;
+        }
+        int n = Math.min(batchSize + BATCH_UNIT, MAX_BATCH);
+        Object[] batch = new Object[n];
+        int count = 0;
+        // 元素的运行时类型未知，这里不能使用nextBatch写入Object[]
+        while (count < n && source.hasNext()) {
+            batch[count++] = source.next();
+        }
+        batchSize = count;
+        return new ArrayRangeIterator<>(batch, 0, count);
+    }
+    
+    @Override
+    public long estimateSize() {
+        return source.hasNext() ? UNKNOWN_SIZE : 0;
+    }
+    
+    /**
+     * 基于数组区间的可拆分迭代器
+     */
+    private static final class ArrayRangeIterator<T> implements SplittableIterator<T> {
+        private final Object[] elements;
+        private int currentIndex;
+        private final int fence;
+        
+        ArrayRangeIterator(Object[] elements, int origin, int fence) {
+            this.elements = elements;
+            this.currentIndex = origin;
+            this.fence = fence;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return currentIndex < fence;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            return (T) elements[currentIndex++];
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            for (int i = currentIndex; i < fence; i++) {
+                action.accept((T) elements[i]);
+            }
+            currentIndex = fence;
+        }
+        
+        @Override
+        public int nextBatch(T[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            int count = Math.min(len, fence - currentIndex);
+            if (count <= 0) {
+                return 0;
+            }
+            System.arraycopy(elements, currentIndex, dst, off, count);
+            currentIndex += count;
+            return count;
+        }
+        
+        @Override
+        public SplittableIterator<T> trySplit() {
+            int mid = (currentIndex + fence) >>> 1;
+            if (mid <= currentIndex) {
+                return null;
+            }
+            ArrayRangeIterator<T> prefix = new ArrayRangeIterator<>(elements, currentIndex, mid);
+            currentIndex = mid;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return fence - currentIndex;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+import java.util.Objects;
+
+/**
+ * 变更事件
+ * 描述聚合在某个版本上添加或移除了哪个元素
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class ChangeEvent<T> {
+    
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        ADDED,
+        REMOVED
+    }
+    
+    private final Type type;
+    private final T element;
+    private final long version;
+    
+    /**
+     * 构造函数
+     * 
+     * @param type 变更类型
+     * @param element 被添加或移除的元素
+     * @param version 变更发生后聚合的版本
+     */
+    public ChangeEvent(Type type, T element, long version) {
+        this.type = Objects.requireNonNull(type);
+        this.element = element;
+        this.version = version;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public T getElement() {
+        return element;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ChangeEvent{%s %s @%d}", type, element, version);
+    }
+}
@@ -0,0 +1,71 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * double类型的原始类型聚合接口
+ * 定义了创建{@link DoubleIterator}的统一接口
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface DoubleAggregate {
+    
+    /**
+     * 创建一个double迭代器
+     * 
+     * @return 新的迭代器实例
+     */
+    DoubleIterator createDoubleIterator();
+    
+    /**
+     * 基于double数组创建聚合
+     * 数组不会被复制，之后对数组的修改会反映到新建的迭代器中
+     * 
+     * @param values 元素数组
+     * @return 遍历该数组的聚合
+     */
+    static DoubleAggregate of(double... values) {
+        return () -> new DoubleIterator() {
+            private int currentIndex = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return currentIndex < values.length;
+            }
+            
+            @Override
+            public double nextDouble() {
+                if (!hasNext()) {
+                    throw new IndexOutOfBoundsException("没有更多元素");
+                }
+                return values[currentIndex++];
+            }
+        };
+    }
+    
+    /**
+     * 将对象聚合映射为double聚合，例如从书籍集合中提取数值字段
+     * 
+     * @param source 原始聚合
+     * @param mapper 元素到double的映射函数
+     * @param <T> 原始元素类型
+     * @return 映射后的聚合
+     */
+    static <T> DoubleAggregate mapping(Aggregate<T> source, ToDoubleFunction<? super T> mapper) {
+        return () -> {
+            Iterator<T> iterator = source.createIterator();
+            return new DoubleIterator() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+                
+                @Override
+                public double nextDouble() {
+                    return mapper.applyAsDouble(iterator.next());
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+/**
+ * double类型的原始类型迭代器
+ * 与{@link Iterator}语义相同，但直接返回double，遍历数值数据时不会产生Double装箱
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface DoubleIterator {
+    
+    /**
+     * 检查是否还有下一个元素
+     * 
+     * @return 如果还有下一个元素返回true，否则返回false
+     */
+    boolean hasNext();
+    
+    /**
+     * 获取下一个元素并移动到下一个位置
+     * 
+     * @return 下一个元素
+     */
+    double nextDouble();
+}
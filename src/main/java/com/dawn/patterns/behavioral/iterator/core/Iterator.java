@@ -1,5 +1,8 @@
 package com.dawn.patterns.behavioral.iterator.core;
 
+import java.util.Objects;
+import java.util.function.Consumer;
+
 /**
  * 迭代器接口
  * 定义了遍历聚合对象的统一接口
@@ -23,4 +26,51 @@ public interface Iterator<T> {
      * @return 下一个元素
      */
     T next();
+    
+    /**
+     * 跳过接下来的n个元素
+     * 默认实现逐个调用next()，支持按位置定位的集合可以重写为直接移动游标
+     * 
+     * @param n 要跳过的元素数量
+     * @return 实际跳过的元素数量，剩余元素不足n个时小于n
+     */
+    default long skip(long n) {
+        long skipped = 0;
+        while (skipped < n && hasNext()) {
+            next();
+            skipped++;
+        }
+        return skipped;
+    }
+    
+    /**
+     * 对剩余的所有元素依次执行指定操作
+     * 默认实现逐个调用hasNext()和next()，具体集合可以重写为内部循环以减少每个元素的接口调用
+     * 
+     * @param action 要执行的操作
+     */
+    default void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        while (hasNext()) {
+            action.accept(next());
+        }
+    }
+    
+    /**
+     * 批量获取接下来的元素，写入目标数组
+     * 
+     * @param dst 目标数组
+     * @param off 写入起始位置
+     * @param len 最多获取的元素数量
+     * @return 实际获取的元素数量，没有更多元素时返回0
+     * @throws IndexOutOfBoundsException 如果off和len超出目标数组范围
+     */
+    default int nextBatch(T[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        int count = 0;
+        while (count < len && hasNext()) {
+            dst[off + count++] = next();
+        }
+        return count;
+    }
 }
@@ -0,0 +1,107 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 线程本地的迭代器池
+ * 每个线程最多缓存capacity个空闲迭代器，acquire()取出后重置到新的数据源，池为空时才新建；
+ * release()放回当前线程的池中。池不加锁，稳定状态下取出和放回都不分配对象。
+ * 
+ * 使用约定：
+ * <ul>
+ *     <li>归还后不能再使用该迭代器，它随时可能被同一线程的下一次acquire()取走</li>
+ *     <li>嵌套遍历时每层各自取出，互不影响；池满或忘记归还只是失去复用，不会出错</li>
+ *     <li>空闲迭代器仍引用最后一次遍历的数据源，直到被再次取出</li>
+ * </ul>
+ * 
+ * @param <S> 数据源类型
+ * @param <I> 迭代器类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class IteratorPool<S, I extends ResettableIterator<?, S>> {
+    
+    /**
+     * 默认每个线程缓存的迭代器数量
+     */
+    public static final int DEFAULT_CAPACITY = 4;
+    
+    private final Function<? super S, ? extends I> factory;
+    private final ThreadLocal<Slots> slots;
+    
+    /**
+     * 构造函数，每个线程缓存{@value #DEFAULT_CAPACITY}个迭代器
+     * 
+     * @param factory 池为空时创建迭代器的方法
+     */
+    public IteratorPool(Function<? super S, ? extends I> factory) {
+        this(factory, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param factory 池为空时创建迭代器的方法
+     * @param capacity 每个线程最多缓存的迭代器数量
+     */
+    public IteratorPool(Function<? super S, ? extends I> factory, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("池容量必须大于0: " + capacity);
+        }
+        this.factory = Objects.requireNonNull(factory);
+        this.slots = ThreadLocal.withInitial(() -> new Slots(capacity));
+    }
+    
+    /**
+     * 取出一个重置到指定数据源的迭代器
+     * 
+     * @param source 数据源
+     * @return 从起点开始遍历source的迭代器
+     */
+    @SuppressWarnings("unchecked")
+    public I acquire(S source) {
+        Slots local = slots.get();
+        if (local.count == 0) {
+            return factory.apply(source);
+        }
+        int top = --local.count;
+        I iterator = (I) local.free[top];
+        local.free[top] = null;
+        iterator.reset(source);
+        return iterator;
+    }
+    
+    /**
+     * 把迭代器放回当前线程的池中，池已满或重复归还时忽略
+     * 
+     * @param iterator 不再使用的迭代器
+     */
+    public void release(I iterator) {
+        Objects.requireNonNull(iterator);
+        Slots local = slots.get();
+        Object[] free = local.free;
+        int count = local.count;
+        for (int i = 0; i < count; i++) {
+            if (free[i] == iterator) {
+                return;
+            }
+        }
+        if (count < free.length) {
+            free[count] = iterator;
+            local.count = count + 1;
+        }
+    }
+    
+    /**
+     * 一个线程的空闲迭代器栈
+     */
+    private static final class Slots {
+        final Object[] free;
+        int count;
+        
+        Slots(int capacity) {
+            this.free = new Object[capacity];
+        }
+    }
+}
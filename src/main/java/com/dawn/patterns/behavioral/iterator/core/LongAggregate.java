@@ -0,0 +1,71 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * long类型的原始类型聚合接口
+ * 定义了创建{@link LongIterator}的统一接口
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface LongAggregate {
+    
+    /**
+     * 创建一个long迭代器
+     * 
+     * @return 新的迭代器实例
+     */
+    LongIterator createLongIterator();
+    
+    /**
+     * 基于long数组创建聚合
+     * 数组不会被复制，之后对数组的修改会反映到新建的迭代器中
+     * 
+     * @param values 元素数组
+     * @return 遍历该数组的聚合
+     */
+    static LongAggregate of(long... values) {
+        return () -> new LongIterator() {
+            private int currentIndex = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return currentIndex < values.length;
+            }
+            
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new IndexOutOfBoundsException("没有更多元素");
+                }
+                return values[currentIndex++];
+            }
+        };
+    }
+    
+    /**
+     * 将对象聚合映射为long聚合，例如从书籍集合中提取数值字段
+     * 
+     * @param source 原始聚合
+     * @param mapper 元素到long的映射函数
+     * @param <T> 原始元素类型
+     * @return 映射后的聚合
+     */
+    static <T> LongAggregate mapping(Aggregate<T> source, ToLongFunction<? super T> mapper) {
+        return () -> {
+            Iterator<T> iterator = source.createIterator();
+            return new LongIterator() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+                
+                @Override
+                public long nextLong() {
+                    return mapper.applyAsLong(iterator.next());
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+/**
+ * 支持按位置访问的聚合接口
+ * 在不复制元素的前提下，让反向遍历、区间拆分等算法直接按索引读取
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface RandomAccessAggregate<T> extends Aggregate<T> {
+    
+    /**
+     * 获取元素数量
+     * 
+     * @return 元素数量
+     */
+    int getSize();
+    
+    /**
+     * 根据索引获取元素
+     * 
+     * @param index 索引
+     * @return 指定索引的元素
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    T getElement(int index);
+}
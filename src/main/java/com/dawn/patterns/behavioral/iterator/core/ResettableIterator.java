@@ -0,0 +1,21 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+/**
+ * 可重置的迭代器接口
+ * 迭代器可以重新绑定到另一个数据源并回到起点，
+ * 同一个实例可以反复用于多次遍历，配合{@link IteratorPool}在热点路径上不再逐次分配迭代器
+ * 
+ * @param <T> 元素类型
+ * @param <S> 数据源类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface ResettableIterator<T, S> extends Iterator<T> {
+    
+    /**
+     * 绑定到指定数据源并回到起点，效果与新建一个迭代器相同
+     * 
+     * @param source 数据源
+     */
+    void reset(S source);
+}
@@ -0,0 +1,32 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+/**
+ * 可拆分迭代器接口
+ * 在普通迭代器的基础上支持把剩余元素一分为二，便于多个线程并行遍历同一个聚合
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface SplittableIterator<T> extends Iterator<T> {
+    
+    /**
+     * 大小未知时{@link #estimateSize()}的返回值
+     */
+    long UNKNOWN_SIZE = Long.MAX_VALUE;
+    
+    /**
+     * 尝试拆分剩余元素
+     * 拆分成功时返回覆盖前一部分元素的新迭代器，当前迭代器继续负责后一部分
+     * 
+     * @return 前一部分元素的迭代器，无法拆分时返回null
+     */
+    SplittableIterator<T> trySplit();
+    
+    /**
+     * 估计剩余元素数量
+     * 
+     * @return 剩余元素数量，无法估计时返回{@link #UNKNOWN_SIZE}
+     */
+    long estimateSize();
+}
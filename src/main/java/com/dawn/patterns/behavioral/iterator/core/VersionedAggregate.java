@@ -0,0 +1,38 @@
+package com.dawn.patterns.behavioral.iterator.core;
+
+/**
+ * 带版本的聚合接口
+ * 每次添加或移除元素版本加1，调用方记住上次处理到的版本，
+ * 之后只遍历这之后的变更，代价与变更数量成正比，而不是与聚合大小成正比
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface VersionedAggregate<T> extends Aggregate<T> {
+    
+    /**
+     * 获取当前版本
+     * 
+     * @return 当前版本，初始为0
+     */
+    long getVersion();
+    
+    /**
+     * 获取仍然可以查询变更的最早版本
+     * 变更日志只保留有限数量的事件，更早的版本需要重新全量遍历
+     * 
+     * @return 最早可查询的版本
+     */
+    long getOldestVersion();
+    
+    /**
+     * 创建遍历指定版本之后全部变更的迭代器
+     * 同一元素在区间内相互抵消的添加和移除不会出现在结果中
+     * 
+     * @param version 上次处理到的版本
+     * @return 版本大于version的变更
+     * @throws IllegalArgumentException 如果version早于最早可查询的版本或晚于当前版本
+     */
+    Iterator<ChangeEvent<T>> changesSince(long version);
+}
@@ -1,7 +1,14 @@
 package com.dawn.patterns.behavioral.iterator.examples;
 
-import com.dawn.patterns.behavioral.iterator.core.Aggregate;
 import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.IteratorPool;
+import com.dawn.patterns.behavioral.iterator.core.RandomAccessAggregate;
+import com.dawn.patterns.behavioral.iterator.core.ResettableIterator;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * 基于数组的书籍集合实现
@@ -10,17 +17,45 @@ import com.dawn.patterns.behavioral.iterator.core.Iterator;
  * @author Dawn
  * @version 1.0.0
  */
-public class ArrayBookCollection implements Aggregate<Book> {
+public class ArrayBookCollection implements RandomAccessAggregate<Book> {
     
     private Book[] books;
     private int size;
+    private int modCount;
     private static final int DEFAULT_CAPACITY = 10;
     
+    /**
+     * 数组能分配的最大长度
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    
+    /**
+     * 逐个遍历时每隔多少个元素检查一次并发修改
+     */
+    private static final int MOD_CHECK_INTERVAL = 1 << 10;
+    
+    /**
+     * 线程本地的迭代器池，迭代器可重新绑定到任意ArrayBookCollection
+     */
+    private static final IteratorPool<ArrayBookCollection, ArrayBookIterator> ITERATOR_POOL = new IteratorPool<>(ArrayBookIterator::new);
+    
     /**
      * 构造函数
      */
     public ArrayBookCollection() {
-        this.books = new Book[DEFAULT_CAPACITY];
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * 指定初始容量的构造函数，已知书籍数量时一次分配到位，加载过程中不再扩容复制
+     * 
+     * @param initialCapacity 初始容量
+     */
+    public ArrayBookCollection(int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("无效的初始容量: " + initialCapacity);
+        }
+        this.books = new Book[initialCapacity];
         this.size = 0;
     }
     
@@ -34,11 +69,65 @@ public class ArrayBookCollection implements Aggregate<Book> {
         
         if (size >= books.length) {
             // 扩容
-            Book[] newBooks = new Book[books.length * 2];
-            System.arraycopy(books, 0, newBooks, 0, size);
-            books = newBooks;
+            grow(size + 1);
         }
         books[size++] = book;
+        modCount++;
+    }
+    
+    /**
+     * 批量添加迭代器中剩余的书籍
+     * 迭代器是能估计剩余数量的{@link SplittableIterator}时（例如其他集合的createSplittableIterator()）按估计值预分配
+     * 
+     * @param iterator 书籍来源
+     * @return 添加的书籍数量
+     */
+    public int addAll(Iterator<Book> iterator) {
+        long sizeHint = 0;
+        if (iterator instanceof SplittableIterator) {
+            long estimate = ((SplittableIterator<Book>) iterator).estimateSize();
+            if (estimate != SplittableIterator.UNKNOWN_SIZE) {
+                sizeHint = estimate;
+            }
+        }
+        return addAll(iterator, sizeHint);
+    }
+    
+    /**
+     * 批量添加迭代器中剩余的书籍
+     * 先按sizeHint一次扩容，再通过nextBatch直接写入数组的空闲部分；
+     * 实际数量超过sizeHint时按正常策略继续扩容，少于sizeHint时多出的容量可以用{@link #trimToSize()}释放。
+     * null会被跳过，与addBook一致
+     * 
+     * @param iterator 书籍来源
+     * @param sizeHint 预计的书籍数量，不知道时传0
+     * @return 添加的书籍数量
+     */
+    public int addAll(Iterator<Book> iterator, long sizeHint) {
+        if (iterator == null) {
+            throw new IllegalArgumentException("迭代器不能为空");
+        }
+        if (sizeHint > 0) {
+            ensureCapacity((int) Math.min(size + sizeHint, MAX_CAPACITY));
+        }
+        // 先记一次修改，来源恰好是本集合的迭代器时抛出ConcurrentModificationException，而不是无限追加
+        modCount++;
+        int start = size;
+        while (iterator.hasNext()) {
+            if (size == books.length) {
+                grow(size + 1);
+            }
+            int count = iterator.nextBatch(books, size, books.length - size);
+            int end = size + count;
+            // 去掉批次中的null
+            for (int i = size; i < end; i++) {
+                if (books[i] != null) {
+                    books[size++] = books[i];
+                }
+            }
+            Arrays.fill(books, size, end, null);
+        }
+        return size - start;
     }
     
     /**
@@ -54,15 +143,68 @@ public class ArrayBookCollection implements Aggregate<Book> {
         return books[index];
     }
     
+    /**
+     * 保证数组至少能容纳minCapacity本书籍，批量加载前一次分配到位
+     * 
+     * @param minCapacity 最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > books.length) {
+            books = Arrays.copyOf(books, Math.min(minCapacity, MAX_CAPACITY));
+        }
+    }
+    
+    /**
+     * 把数组缩小到与书籍数量相同，释放扩容或预分配留下的空闲容量
+     * 正在进行的可拆分遍历持有原数组，不受影响
+     */
+    public void trimToSize() {
+        if (size < books.length) {
+            books = Arrays.copyOf(books, size);
+        }
+    }
+    
+    /**
+     * 获取当前容量
+     * 
+     * @return 数组长度
+     */
+    public int getCapacity() {
+        return books.length;
+    }
+    
+    /**
+     * 扩容为原来的两倍（至少为minCapacity）
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("集合容量超出数组长度上限");
+        }
+        int newCapacity = (int) Math.min(Math.max((long) books.length * 2, minCapacity), MAX_CAPACITY);
+        books = Arrays.copyOf(books, newCapacity);
+    }
+    
     /**
      * 获取书籍数量
      * 
      * @return 书籍数量
      */
+    @Override
     public int getSize() {
         return size;
     }
     
+    /**
+     * 根据索引获取书籍
+     * 
+     * @param index 索引
+     * @return 书籍
+     */
+    @Override
+    public Book getElement(int index) {
+        return getBook(index);
+    }
+    
     /**
      * 创建迭代器
      * 
@@ -73,6 +215,52 @@ public class ArrayBookCollection implements Aggregate<Book> {
         return new ArrayBookIterator(this);
     }
     
+    /**
+     * 从当前线程的迭代器池中取出迭代器
+     * 与createIterator()的遍历行为相同，用完后通过{@link #releaseIterator(Iterator)}归还，
+     * 稳定状态下反复扫描不再分配迭代器；归还后不能继续使用
+     * 
+     * @return 从第一本书开始的迭代器
+     */
+    public Iterator<Book> acquireIterator() {
+        return ITERATOR_POOL.acquire(this);
+    }
+    
+    /**
+     * 把acquireIterator()取出的迭代器归还给当前线程的迭代器池
+     * 其他来源的迭代器会被忽略
+     * 
+     * @param iterator 不再使用的迭代器
+     */
+    public void releaseIterator(Iterator<Book> iterator) {
+        if (iterator instanceof ArrayBookIterator) {
+            ITERATOR_POOL.release((ArrayBookIterator) iterator);
+        }
+    }
+    
+    /**
+     * 创建可拆分迭代器
+     * 按数组下标区间对半拆分，拆分本身不复制任何元素
+     * 
+     * @return 覆盖当前全部书籍的可拆分迭代器
+     */
+    @Override
+    public SplittableIterator<Book> createSplittableIterator() {
+        return new ArrayBookSplitter(this, books, 0, size, modCount);
+    }
+    
+    /**
+     * 检查集合在迭代器创建之后是否被修改过
+     * 
+     * @param expectedModCount 迭代器创建时的修改次数
+     * @throws ConcurrentModificationException 如果集合已被修改
+     */
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("集合在遍历过程中被修改");
+        }
+    }
+    
     @Override
     public String toString() {
         return String.format("ArrayBookCollection{size=%d, capacity=%d}", size, books.length);
@@ -80,19 +268,109 @@ public class ArrayBookCollection implements Aggregate<Book> {
     
     /**
      * 数组书籍迭代器
+     * 并发修改只在批次边界检查：逐个遍历时每MOD_CHECK_INTERVAL个元素一次、
+     * 每次skip/nextBatch一次、forEachRemaining结束时一次，以及遍历到末尾时一次
      */
-    private static class ArrayBookIterator implements Iterator<Book> {
-        private final ArrayBookCollection collection;
+    private static class ArrayBookIterator implements ResettableIterator<Book, ArrayBookCollection> {
+        private ArrayBookCollection collection;
+        private int expectedModCount;
         private int currentIndex;
         
         public ArrayBookIterator(ArrayBookCollection collection) {
+            reset(collection);
+        }
+        
+        @Override
+        public void reset(ArrayBookCollection collection) {
             this.collection = collection;
+            this.expectedModCount = collection.modCount;
             this.currentIndex = 0;
         }
         
         @Override
         public boolean hasNext() {
-            return currentIndex < collection.getSize();
+            if (currentIndex < collection.size) {
+                return true;
+            }
+            collection.checkForComodification(expectedModCount);
+            return false;
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            int index = currentIndex++;
+            if ((index & (MOD_CHECK_INTERVAL - 1)) == 0) {
+                collection.checkForComodification(expectedModCount);
+            }
+            // hasNext()已经检查过边界，直接读取数组
+            return collection.books[index];
+        }
+        
+        @Override
+        public long skip(long n) {
+            collection.checkForComodification(expectedModCount);
+            int step = (int) Math.max(Math.min(n, collection.size - currentIndex), 0);
+            currentIndex += step;
+            return step;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            Objects.requireNonNull(action);
+            Book[] books = collection.books;
+            int size = collection.size;
+            int index = currentIndex;
+            while (index < size) {
+                action.accept(books[index++]);
+            }
+            currentIndex = index;
+            collection.checkForComodification(expectedModCount);
+        }
+        
+        @Override
+        public int nextBatch(Book[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            collection.checkForComodification(expectedModCount);
+            int count = Math.min(len, collection.size - currentIndex);
+            if (count <= 0) {
+                return 0;
+            }
+            System.arraycopy(collection.books, currentIndex, dst, off, count);
+            currentIndex += count;
+            return count;
+        }
+    }
+    
+    /**
+     * 数组书籍可拆分迭代器
+     * 持有创建时的数组和区间，扩容后的新数组不影响正在进行的遍历；
+     * 与ArrayBookIterator一样在批次边界检查并发修改
+     */
+    private static class ArrayBookSplitter implements SplittableIterator<Book> {
+        private final ArrayBookCollection collection;
+        private final Book[] books;
+        private final int expectedModCount;
+        private int currentIndex;
+        private final int fence;
+        
+        ArrayBookSplitter(ArrayBookCollection collection, Book[] books, int origin, int fence, int expectedModCount) {
+            this.collection = collection;
+            this.books = books;
+            this.expectedModCount = expectedModCount;
+            this.currentIndex = origin;
+            this.fence = fence;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (currentIndex < fence) {
+                return true;
+            }
+            collection.checkForComodification(expectedModCount);
+            return false;
         }
         
         @Override
@@ -100,7 +378,50 @@ public class ArrayBookCollection implements Aggregate<Book> {
             if (!hasNext()) {
                 throw new IndexOutOfBoundsException("没有更多元素");
             }
-            return collection.getBook(currentIndex++);
+            int index = currentIndex++;
+            if ((index & (MOD_CHECK_INTERVAL - 1)) == 0) {
+                collection.checkForComodification(expectedModCount);
+            }
+            return books[index];
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            Objects.requireNonNull(action);
+            for (int i = currentIndex; i < fence; i++) {
+                action.accept(books[i]);
+            }
+            currentIndex = fence;
+            collection.checkForComodification(expectedModCount);
+        }
+        
+        @Override
+        public int nextBatch(Book[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            collection.checkForComodification(expectedModCount);
+            int count = Math.min(len, fence - currentIndex);
+            if (count <= 0) {
+                return 0;
+            }
+            System.arraycopy(books, currentIndex, dst, off, count);
+            currentIndex += count;
+            return count;
+        }
+        
+        @Override
+        public SplittableIterator<Book> trySplit() {
+            int mid = (currentIndex + fence) >>> 1;
+            if (mid <= currentIndex) {
+                return null;
+            }
+            ArrayBookSplitter prefix = new ArrayBookSplitter(collection, books, currentIndex, mid, expectedModCount);
+            currentIndex = mid;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return fence - currentIndex;
         }
     }
 }
@@ -11,6 +11,7 @@ public class Book {
     
     private final String title;
     private final String author;
+    private int hash;
     
     /**
      * 构造函数
@@ -40,9 +41,19 @@ public class Book {
         return Objects.equals(title, book.title) && Objects.equals(author, book.author);
     }
     
+    /**
+     * 哈希值在第一次调用时计算并缓存，之后不再重复计算
+     * 
+     * @return 哈希值
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(title, author);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(title, author);
+            hash = h;
+        }
+        return h;
     }
     
     @Override
@@ -1,9 +1,16 @@
 package com.dawn.patterns.behavioral.iterator.examples;
 
 import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.ChangeEvent;
 import com.dawn.patterns.behavioral.iterator.core.Iterator;
-import java.util.ArrayList;
-import java.util.List;
+import com.dawn.patterns.behavioral.iterator.core.IteratorPool;
+import com.dawn.patterns.behavioral.iterator.core.RandomAccessAggregate;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+import com.dawn.patterns.behavioral.iterator.core.VersionedAggregate;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * 简化的书籍集合类
@@ -12,10 +19,28 @@ import java.util.List;
  * @author Dawn
  * @version 1.0.0
  */
-public class BookCollection implements Aggregate<Book> {
+public class BookCollection implements RandomAccessAggregate<Book>, VersionedAggregate<Book> {
     
     private final String collectionName;
-    private final List<Book> books;
+    private final BookTable books;
+    private final BookIndexes indexes;
+    private final ChangeLog<Book> changes;
+    private int modCount;
+    
+    /**
+     * 默认保留的变更数量
+     */
+    public static final int DEFAULT_CHANGE_RETENTION = 4096;
+    
+    /**
+     * 逐个遍历时每隔多少个元素检查一次并发修改（仅供迭代器使用）
+     */
+    static final int MOD_CHECK_INTERVAL = 1 << 10;
+    
+    /**
+     * 线程本地的迭代器池，迭代器可重新绑定到任意BookCollection
+     */
+    private static final IteratorPool<BookCollection, BookIterator> ITERATOR_POOL = new IteratorPool<>(BookIterator::new);
     
     /**
      * 构造函数
@@ -24,7 +49,9 @@ public class BookCollection implements Aggregate<Book> {
      */
     public BookCollection(String collectionName) {
         this.collectionName = collectionName;
-        this.books = new ArrayList<>();
+        this.books = new BookTable();
+        this.indexes = new BookIndexes();
+        this.changes = new ChangeLog<>(DEFAULT_CHANGE_RETENTION);
     }
     
     /**
@@ -35,17 +62,97 @@ public class BookCollection implements Aggregate<Book> {
     public void addBook(Book book) {
         if (book != null) {
             books.add(book);
+            indexes.add(book);
+            changes.record(false, book);
+            modCount++;
         }
     }
     
     /**
-     * 移除书籍
+     * 保证底层列表至少能容纳minCapacity本书籍，批量加载前一次分配到位（仅供快照加载使用）
+     * 
+     * @param minCapacity 最小容量
+     */
+    void ensureCapacity(int minCapacity) {
+        books.ensureCapacity(minCapacity);
+    }
+    
+    /**
+     * 移除第一本与book相等的书籍
+     * 通过位置索引直接定位，只留下墓碑而不移动后面的书籍，其余书籍的顺序不变；
+     * 墓碑超过一定比例时在这里统一压缩，否则留到下一次创建迭代器时压缩；按位置读取不会触发压缩
      * 
      * @param book 要移除的书籍
      * @return 如果成功移除返回true，否则返回false
      */
     public boolean removeBook(Book book) {
-        return books.remove(book);
+        if (!books.remove(book)) {
+            return false;
+        }
+        indexes.remove(book);
+        changes.record(true, book);
+        modCount++;
+        return true;
+    }
+    
+    /**
+     * 是否包含与book相等的书籍，通过位置索引查找，不扫描集合
+     * 
+     * @param book 书籍
+     * @return 如果包含返回true
+     */
+    public boolean contains(Book book) {
+        return books.contains(book);
+    }
+    
+    /**
+     * 建立索引，之后的addBook/removeBook会同步维护该索引
+     * 
+     * @param type 索引类型
+     */
+    public void createIndex(IndexType type) {
+        indexes.create(Objects.requireNonNull(type), books.asList());
+    }
+    
+    /**
+     * 删除索引
+     * 
+     * @param type 索引类型
+     */
+    public void dropIndex(IndexType type) {
+        indexes.drop(Objects.requireNonNull(type));
+    }
+    
+    /**
+     * 是否已建立指定索引
+     * 
+     * @param type 索引类型
+     * @return 如果已建立返回true
+     */
+    public boolean hasIndex(IndexType type) {
+        return indexes.contains(Objects.requireNonNull(type));
+    }
+    
+    /**
+     * 查询满足条件的书籍
+     * 每次创建迭代器时按当时已建立的索引选择查询方式：
+     * 作者精确匹配使用作者索引，书名精确/前缀匹配使用书名索引，
+     * 书名或作者包含（至少3个字符）使用n-gram索引，其余情况顺序扫描。
+     * 使用索引时结果按索引顺序返回，顺序扫描时按集合顺序返回。
+     * 
+     * @param query 查询条件
+     * @return 满足条件的书籍
+     */
+    public Aggregate<Book> findBooks(BookQuery query) {
+        Objects.requireNonNull(query);
+        return () -> {
+            Collection<Book> matches = indexes.lookup(query);
+            if (matches == null) {
+                books.compact();
+                return new QueryScanIterator(this, query, modCount);
+            }
+            return new QueryResultIterator(this, matches, modCount);
+        };
     }
     
     /**
@@ -60,14 +167,131 @@ public class BookCollection implements Aggregate<Book> {
     }
     
     /**
-     * 获取内部书籍数量（仅供迭代器使用）
+     * 获取书籍数量
      * 
      * @return 书籍数量
      */
-    int getSize() {
+    @Override
+    public int getSize() {
         return books.size();
     }
     
+    /**
+     * 根据索引获取书籍
+     * 
+     * @param index 书籍索引
+     * @return 指定索引的书籍
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    @Override
+    public Book getElement(int index) {
+        return getBook(index);
+    }
+    
+    /**
+     * 获取当前版本，每次成功添加或移除书籍加1
+     * 
+     * @return 当前版本
+     */
+    @Override
+    public long getVersion() {
+        return changes.version();
+    }
+    
+    /**
+     * 获取仍然可以查询变更的最早版本
+     * 
+     * @return 最早可查询的版本
+     */
+    @Override
+    public long getOldestVersion() {
+        return changes.oldestVersion();
+    }
+    
+    /**
+     * 创建遍历指定版本之后变更的迭代器
+     * 只读取变更日志，代价与变更数量成正比；结果是创建时的快照，不受之后的修改影响
+     * 
+     * @param version 上次处理到的版本
+     * @return 压缩后的添加和移除事件
+     * @throws IllegalArgumentException 如果version早于最早可查询的版本或晚于当前版本
+     */
+    @Override
+    public Iterator<ChangeEvent<Book>> changesSince(long version) {
+        return changes.since(version);
+    }
+    
+    /**
+     * 设置变更日志最多保留的变更数量，超出时最早的变更被丢弃
+     * 
+     * @param retention 保留数量，0表示不保留变更（版本仍然递增）
+     */
+    public void setChangeRetention(int retention) {
+        changes.setRetention(retention);
+    }
+    
+    /**
+     * 获取结构修改次数（仅供迭代器使用）
+     * 
+     * @return 添加和移除书籍的累计次数
+     */
+    int getModCount() {
+        return modCount;
+    }
+    
+    /**
+     * 检查集合在迭代器创建之后是否被修改过（仅供迭代器使用）
+     * 
+     * @param expectedModCount 迭代器创建时的修改次数
+     * @throws ConcurrentModificationException 如果集合已被修改
+     */
+    void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("集合在遍历过程中被修改");
+        }
+    }
+    
+    /**
+     * 从指定位置开始对剩余书籍执行操作（仅供迭代器使用）
+     * 循环内不检查修改次数，只在遍历结束时检查一次；
+     * 操作中移除书籍导致越界时同样报告为并发修改
+     * 
+     * @param fromIndex 起始位置
+     * @param toIndex 结束位置（不包含）
+     * @param expectedModCount 迭代器创建时的修改次数
+     * @param action 要执行的操作
+     * @return 遍历结束时的位置
+     */
+    int forEachFrom(int fromIndex, int toIndex, int expectedModCount, Consumer<? super Book> action) {
+        try {
+            for (int i = fromIndex; i < toIndex; i++) {
+                action.accept(books.get(i));
+            }
+        } catch (IndexOutOfBoundsException e) {
+            checkForComodification(expectedModCount);
+            throw e;
+        }
+        checkForComodification(expectedModCount);
+        return Math.max(fromIndex, toIndex);
+    }
+    
+    /**
+     * 从指定位置开始批量复制书籍到目标数组（仅供迭代器使用）
+     * 
+     * @param fromIndex 起始位置
+     * @param dst 目标数组
+     * @param off 写入起始位置
+     * @param len 最多复制的数量
+     * @return 实际复制的数量
+     */
+    int copyTo(int fromIndex, Book[] dst, int off, int len) {
+        int count = Math.min(len, books.size() - fromIndex);
+        for (int i = 0; i < count; i++) {
+            dst[off + i] = books.get(fromIndex + i);
+        }
+        return Math.max(count, 0);
+    }
+    
     /**
      * 创建迭代器
      * 
@@ -75,9 +299,47 @@ public class BookCollection implements Aggregate<Book> {
      */
     @Override
     public Iterator<Book> createIterator() {
+        books.compact();
         return new BookIterator(this);
     }
     
+    /**
+     * 从当前线程的迭代器池中取出迭代器
+     * 与createIterator()的遍历行为相同，用完后通过{@link #releaseIterator(Iterator)}归还，
+     * 稳定状态下反复扫描不再分配迭代器；归还后不能继续使用
+     * 
+     * @return 从第一本书开始的迭代器
+     */
+    public Iterator<Book> acquireIterator() {
+        books.compact();
+        return ITERATOR_POOL.acquire(this);
+    }
+    
+    /**
+     * 把acquireIterator()取出的迭代器归还给当前线程的迭代器池
+     * 其他来源的迭代器会被忽略
+     * 
+     * @param iterator 不再使用的迭代器
+     */
+    public void releaseIterator(Iterator<Book> iterator) {
+        if (iterator instanceof BookIterator) {
+            ITERATOR_POOL.release((BookIterator) iterator);
+        }
+    }
+    
+    /**
+     * 创建可拆分迭代器
+     * 按索引区间对半拆分，用于并行遍历；拆分之前先在当前线程压缩墓碑，
+     * 各个工作线程之后只读取存储
+     * 
+     * @return 覆盖当前全部书籍的可拆分迭代器
+     */
+    @Override
+    public SplittableIterator<Book> createSplittableIterator() {
+        books.compact();
+        return new BookSplitter(this, 0, getSize(), modCount);
+    }
+    
     /**
      * 获取集合名称
      * 
@@ -91,4 +353,167 @@ public class BookCollection implements Aggregate<Book> {
     public String toString() {
         return String.format("BookCollection{name='%s', size=%d}", collectionName, getSize());
     }
+    
+    /**
+     * 书籍集合支持的索引类型
+     */
+    public enum IndexType {
+        /**
+         * 作者哈希索引，用于作者精确匹配
+         */
+        AUTHOR,
+        /**
+         * 书名有序索引，用于书名精确匹配和前缀匹配
+         */
+        TITLE_PREFIX,
+        /**
+         * 书名和作者的三元组索引，用于子串匹配
+         */
+        NGRAM
+    }
+    
+    /**
+     * 索引查询结果迭代器
+     * 精确匹配的结果直接是倒排表的视图，集合被修改后继续遍历会抛出ConcurrentModificationException
+     */
+    private static class QueryResultIterator implements Iterator<Book> {
+        private final BookCollection collection;
+        private final java.util.Iterator<Book> matches;
+        private final int expectedModCount;
+        
+        QueryResultIterator(BookCollection collection, Collection<Book> matches, int expectedModCount) {
+            this.collection = collection;
+            this.matches = matches.iterator();
+            this.expectedModCount = expectedModCount;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            collection.checkForComodification(expectedModCount);
+            return matches.hasNext();
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多满足条件的元素");
+            }
+            return matches.next();
+        }
+    }
+    
+    /**
+     * 没有可用索引时的顺序扫描迭代器
+     */
+    private static class QueryScanIterator implements Iterator<Book> {
+        private final BookCollection collection;
+        private final BookQuery query;
+        private final int expectedModCount;
+        private int currentIndex;
+        
+        QueryScanIterator(BookCollection collection, BookQuery query, int expectedModCount) {
+            this.collection = collection;
+            this.query = query;
+            this.expectedModCount = expectedModCount;
+            this.currentIndex = 0;
+        }
+        
+        /**
+         * 移动到下一本满足条件的书籍，已经停在满足条件的书籍上时不移动
+         */
+        @Override
+        public boolean hasNext() {
+            BookTable books = collection.books;
+            while (currentIndex < books.size() && !query.matches(books.get(currentIndex))) {
+                currentIndex++;
+            }
+            if (currentIndex < books.size()) {
+                return true;
+            }
+            collection.checkForComodification(expectedModCount);
+            return false;
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多满足条件的元素");
+            }
+            return collection.books.get(currentIndex++);
+        }
+    }
+    
+    /**
+     * 书籍集合可拆分迭代器
+     * 遍历期间集合不应被修改，修改在批次边界被检测到
+     */
+    private static class BookSplitter implements SplittableIterator<Book> {
+        private final BookCollection collection;
+        private final int expectedModCount;
+        private int currentIndex;
+        private final int fence;
+        
+        BookSplitter(BookCollection collection, int origin, int fence, int expectedModCount) {
+            this.collection = collection;
+            this.expectedModCount = expectedModCount;
+            this.currentIndex = origin;
+            this.fence = fence;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (currentIndex < fence) {
+                return true;
+            }
+            collection.checkForComodification(expectedModCount);
+            return false;
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多书籍可以迭代");
+            }
+            int index = currentIndex++;
+            if ((index & (MOD_CHECK_INTERVAL - 1)) == 0) {
+                collection.checkForComodification(expectedModCount);
+            }
+            return collection.books.get(index);
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            Objects.requireNonNull(action);
+            currentIndex = collection.forEachFrom(currentIndex, fence, expectedModCount, action);
+        }
+        
+        @Override
+        public int nextBatch(Book[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            collection.checkForComodification(expectedModCount);
+            int count = Math.min(len, fence - currentIndex);
+            if (count <= 0) {
+                return 0;
+            }
+            count = collection.copyTo(currentIndex, dst, off, count);
+            currentIndex += count;
+            return count;
+        }
+        
+        @Override
+        public SplittableIterator<Book> trySplit() {
+            int mid = (currentIndex + fence) >>> 1;
+            if (mid <= currentIndex) {
+                return null;
+            }
+            BookSplitter prefix = new BookSplitter(collection, currentIndex, mid, expectedModCount);
+            currentIndex = mid;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return fence - currentIndex;
+        }
+    }
 }
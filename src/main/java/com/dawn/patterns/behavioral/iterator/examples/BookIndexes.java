@@ -0,0 +1,369 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * BookCollection的二级索引（仅供BookCollection使用）
+ * 每种索引都是"键 -> 倒排表"的映射，随addBook/removeBook同步维护：
+ * 作者索引为哈希表，书名索引为按书名排序的TreeMap，n-gram索引把书名和作者的每个三元组映射到书籍。
+ * 倒排表按书籍哈希定位，移除一本书对每个键都是O(1)，不会随热门作者或常见三元组的书籍数量变慢。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+final class BookIndexes {
+    
+    private PostingIndex authorIndex;
+    private TitleIndex titleIndex;
+    private NGramIndex titleGrams;
+    private NGramIndex authorGrams;
+    
+    /**
+     * 建立索引，已存在时不做任何事
+     * 
+     * @param type 索引类型
+     * @param books 集合中现有的书籍
+     */
+    void create(BookCollection.IndexType type, List<Book> books) {
+        if (contains(type)) {
+            return;
+        }
+        switch (type) {
+            case AUTHOR:
+                authorIndex = new AuthorIndex();
+                authorIndex.addAll(books);
+                break;
+            case TITLE_PREFIX:
+                titleIndex = new TitleIndex();
+                titleIndex.addAll(books);
+                break;
+            default:
+                titleGrams = new NGramIndex(Book::getTitle);
+                titleGrams.addAll(books);
+                authorGrams = new NGramIndex(Book::getAuthor);
+                authorGrams.addAll(books);
+                break;
+        }
+    }
+    
+    void drop(BookCollection.IndexType type) {
+        switch (type) {
+            case AUTHOR:
+                authorIndex = null;
+                break;
+            case TITLE_PREFIX:
+                titleIndex = null;
+                break;
+            default:
+                titleGrams = null;
+                authorGrams = null;
+                break;
+        }
+    }
+    
+    boolean contains(BookCollection.IndexType type) {
+        switch (type) {
+            case AUTHOR:
+                return authorIndex != null;
+            case TITLE_PREFIX:
+                return titleIndex != null;
+            default:
+                return titleGrams != null;
+        }
+    }
+    
+    void add(Book book) {
+        if (authorIndex != null) {
+            authorIndex.add(book);
+        }
+        if (titleIndex != null) {
+            titleIndex.add(book);
+        }
+        if (titleGrams != null) {
+            titleGrams.add(book);
+            authorGrams.add(book);
+        }
+    }
+    
+    void remove(Book book) {
+        if (authorIndex != null) {
+            authorIndex.remove(book);
+        }
+        if (titleIndex != null) {
+            titleIndex.remove(book);
+        }
+        if (titleGrams != null) {
+            titleGrams.remove(book);
+            authorGrams.remove(book);
+        }
+    }
+    
+    /**
+     * 用索引回答查询
+     * 
+     * @param query 查询条件
+     * @return 满足条件的书籍（精确匹配时是倒排表的只读视图，只在下一次修改之前有效），没有可用的索引时返回null
+     */
+    Collection<Book> lookup(BookQuery query) {
+        String value = query.getValue();
+        boolean title = query.getField() == BookQuery.Field.TITLE;
+        switch (query.getMatch()) {
+            case EQUALS:
+                if (!title && authorIndex != null) {
+                    return authorIndex.get(value);
+                }
+                if (title && titleIndex != null) {
+                    return titleIndex.get(value);
+                }
+                break;
+            case PREFIX:
+                if (title && titleIndex != null) {
+                    return titleIndex.prefix(value);
+                }
+                break;
+            default:
+                NGramIndex grams = title ? titleGrams : authorGrams;
+                if (grams != null && value.length() >= NGramIndex.N) {
+                    return grams.contains(value);
+                }
+                break;
+        }
+        return null;
+    }
+    
+    /**
+     * 倒排索引：键 -> 倒排表
+     */
+    private abstract static class PostingIndex {
+        final Map<String, Posting> postings;
+        
+        PostingIndex(Map<String, Posting> postings) {
+            this.postings = postings;
+        }
+        
+        /**
+         * 书籍在此索引中的键，同一本书的键不重复
+         */
+        abstract Collection<String> keys(Book book);
+        
+        void addAll(List<Book> books) {
+            for (Book book : books) {
+                add(book);
+            }
+        }
+        
+        void add(Book book) {
+            for (String key : keys(book)) {
+                postings.computeIfAbsent(key, k -> new Posting()).append(book);
+            }
+        }
+        
+        void remove(Book book) {
+            for (String key : keys(book)) {
+                Posting posting = postings.get(key);
+                if (posting != null && posting.removeFirst(book) && posting.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+        
+        /**
+         * 键对应的书籍，返回倒排表本身的只读视图，不复制
+         */
+        Collection<Book> get(String key) {
+            Posting posting = postings.get(key);
+            return posting == null ? List.of() : posting;
+        }
+    }
+    
+    /**
+     * 一个键的倒排表，同时也是它的只读视图
+     * 相等的书籍共用一项，按第一次加入的顺序排列：只有一本时值就是这本书，有多本时是按加入顺序排列的Duplicates。
+     * 追加和移除第一本相等的书籍都是O(1)；移除的总是最早加入的一本，与BookTable移除的是同一个实例。
+     */
+    private static final class Posting extends AbstractCollection<Book> {
+        private final Map<Book, Object> books = new LinkedHashMap<>(4);
+        private int size;
+        
+        void append(Book book) {
+            Object current = books.putIfAbsent(book, book);
+            if (current instanceof Duplicates) {
+                ((Duplicates) current).books.addLast(book);
+            } else if (current != null) {
+                Duplicates duplicates = new Duplicates();
+                duplicates.books.addLast((Book) current);
+                duplicates.books.addLast(book);
+                books.replace(book, duplicates);
+            }
+            size++;
+        }
+        
+        boolean removeFirst(Book book) {
+            Object current = books.get(book);
+            if (current == null) {
+                return false;
+            }
+            if (current instanceof Duplicates) {
+                ArrayDeque<Book> same = ((Duplicates) current).books;
+                same.pollFirst();
+                if (same.size() == 1) {
+                    books.replace(book, same.peekFirst());
+                }
+            } else {
+                books.remove(book);
+            }
+            size--;
+            return true;
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public Iterator<Book> iterator() {
+            Iterator<Object> values = books.values().iterator();
+            return new Iterator<Book>() {
+                private Iterator<Book> same;
+                
+                @Override
+                public boolean hasNext() {
+                    return (same != null && same.hasNext()) || values.hasNext();
+                }
+                
+                @Override
+                public Book next() {
+                    if (same != null && same.hasNext()) {
+                        return same.next();
+                    }
+                    if (!values.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Object value = values.next();
+                    if (value instanceof Duplicates) {
+                        same = ((Duplicates) value).books.iterator();
+                        return same.next();
+                    }
+                    same = null;
+                    return (Book) value;
+                }
+            };
+        }
+    }
+    
+    /**
+     * 倒排表中相等书籍的全部实例，按加入顺序排列
+     */
+    private static final class Duplicates {
+        final ArrayDeque<Book> books = new ArrayDeque<>(2);
+    }
+    
+    /**
+     * 作者哈希索引
+     */
+    private static final class AuthorIndex extends PostingIndex {
+        AuthorIndex() {
+            super(new HashMap<>());
+        }
+        
+        @Override
+        Collection<String> keys(Book book) {
+            return book.getAuthor() == null ? List.of() : List.of(book.getAuthor());
+        }
+    }
+    
+    /**
+     * 书名有序索引，前缀查询从第一个不小于前缀的书名开始读取，直到书名不再以前缀开头
+     */
+    private static final class TitleIndex extends PostingIndex {
+        private final TreeMap<String, Posting> sorted;
+        
+        TitleIndex() {
+            this(new TreeMap<>());
+        }
+        
+        private TitleIndex(TreeMap<String, Posting> sorted) {
+            super(sorted);
+            this.sorted = sorted;
+        }
+        
+        @Override
+        Collection<String> keys(Book book) {
+            return book.getTitle() == null ? List.of() : List.of(book.getTitle());
+        }
+        
+        List<Book> prefix(String prefix) {
+            List<Book> result = new ArrayList<>();
+            for (Map.Entry<String, Posting> entry : sorted.tailMap(prefix).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                result.addAll(entry.getValue());
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * 三元组（trigram）索引
+     * 子串查询取查询串全部三元组中倒排表最短的一个作为候选，再逐个校验是否真正包含查询串
+     */
+    private static final class NGramIndex extends PostingIndex {
+        static final int N = 3;
+        
+        private final Function<Book, String> field;
+        
+        NGramIndex(Function<Book, String> field) {
+            super(new HashMap<>());
+            this.field = field;
+        }
+        
+        @Override
+        Collection<String> keys(Book book) {
+            String value = field.apply(book);
+            return value == null ? List.of() : grams(value);
+        }
+        
+        List<Book> contains(String text) {
+            Posting candidates = null;
+            for (String gram : grams(text)) {
+                Posting books = postings.get(gram);
+                if (books == null) {
+                    return List.of();
+                }
+                if (candidates == null || books.size() < candidates.size()) {
+                    candidates = books;
+                }
+            }
+            List<Book> result = new ArrayList<>();
+            for (Book book : candidates) {
+                if (field.apply(book).contains(text)) {
+                    result.add(book);
+                }
+            }
+            return result;
+        }
+        
+        private static Set<String> grams(String value) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + N <= value.length(); i++) {
+                grams.add(value.substring(i, i + N));
+            }
+            return grams;
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.dawn.patterns.behavioral.iterator.examples;
 
-import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.ResettableIterator;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * 书籍迭代器类
  * 实现了Iterator接口，提供了遍历BookCollection的具体实现
+ * 集合在遍历过程中被修改时抛出ConcurrentModificationException，
+ * 检查只发生在批次边界（每1024个元素、每次批量操作、遍历结束时），不增加逐元素的开销
+ * 可以通过reset()重新绑定到另一个集合，供BookCollection的线程本地迭代器池复用
  * 
  * @author Dawn
  * @version 1.0.0
  */
-public class BookIterator implements Iterator<Book> {
+public class BookIterator implements ResettableIterator<Book, BookCollection> {
     
-    private final BookCollection bookCollection;
+    private BookCollection bookCollection;
+    private int expectedModCount;
     private int currentIndex;
     
     /**
@@ -20,7 +26,18 @@ public class BookIterator implements Iterator<Book> {
      * @param bookCollection 要遍历的书籍集合
      */
     public BookIterator(BookCollection bookCollection) {
+        reset(bookCollection);
+    }
+    
+    /**
+     * 重新绑定到指定集合并回到第一本书
+     * 
+     * @param bookCollection 要遍历的书籍集合
+     */
+    @Override
+    public void reset(BookCollection bookCollection) {
         this.bookCollection = bookCollection;
+        this.expectedModCount = bookCollection.getModCount();
         this.currentIndex = 0;
     }
     
@@ -31,7 +48,12 @@ public class BookIterator implements Iterator<Book> {
      */
     @Override
     public boolean hasNext() {
-        return currentIndex < bookCollection.getSize();
+        if (currentIndex < bookCollection.getSize()) {
+            return true;
+        }
+        // 遍历到末尾时检查一次，移除书籍导致提前结束时不会悄悄返回false
+        bookCollection.checkForComodification(expectedModCount);
+        return false;
     }
     
     /**
@@ -45,13 +67,59 @@ public class BookIterator implements Iterator<Book> {
         if (!hasNext()) {
             throw new IndexOutOfBoundsException("没有更多书籍可以迭代");
         }
-        return bookCollection.getBook(currentIndex++);
+        int index = currentIndex++;
+        // 不逐个检查修改次数，每MOD_CHECK_INTERVAL个元素检查一次
+        if ((index & (BookCollection.MOD_CHECK_INTERVAL - 1)) == 0) {
+            bookCollection.checkForComodification(expectedModCount);
+        }
+        return bookCollection.getBook(index);
+    }
+    
+    /**
+     * 跳过接下来的n本书籍，直接移动索引
+     * 
+     * @param n 要跳过的数量
+     * @return 实际跳过的数量
+     */
+    @Override
+    public long skip(long n) {
+        bookCollection.checkForComodification(expectedModCount);
+        int step = (int) Math.max(Math.min(n, bookCollection.getSize() - currentIndex), 0);
+        currentIndex += step;
+        return step;
     }
     
+    /**
+     * 对剩余书籍执行操作，由集合内部循环完成，省去逐个调用hasNext()和next()
+     * 
+     * @param action 要执行的操作
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super Book> action) {
+        Objects.requireNonNull(action);
+        currentIndex = bookCollection.forEachFrom(currentIndex, bookCollection.getSize(), expectedModCount, action);
+    }
+    
+    /**
+     * 批量获取接下来的书籍
+     * 
+     * @param dst 目标数组
+     * @param off 写入起始位置
+     * @param len 最多获取的数量
+     * @return 实际获取的数量
+     */
+    @Override
+    public int nextBatch(Book[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        bookCollection.checkForComodification(expectedModCount);
+        int count = bookCollection.copyTo(currentIndex, dst, off, len);
+        currentIndex += count;
+        return count;
+    }
     
     @Override
     public String toString() {
         return String.format("BookIterator{currentIndex=%d, hasNext=%s}", 
-                           currentIndex, hasNext());
+                           currentIndex, currentIndex < bookCollection.getSize());
     }
 }
@@ -0,0 +1,143 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import java.util.Objects;
+
+/**
+ * 书籍查询条件
+ * 描述"哪个字段"以"哪种方式"匹配"什么值"，由{@link BookCollection#findBooks(BookQuery)}
+ * 根据已建立的索引选择查询方式，没有可用索引时退化为顺序扫描。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class BookQuery {
+    
+    /**
+     * 查询的字段
+     */
+    enum Field {
+        TITLE,
+        AUTHOR
+    }
+    
+    /**
+     * 匹配方式
+     */
+    enum Match {
+        EQUALS,
+        PREFIX,
+        CONTAINS
+    }
+    
+    private final Field field;
+    private final Match match;
+    private final String value;
+    
+    private BookQuery(Field field, Match match, String value) {
+        this.field = field;
+        this.match = match;
+        this.value = Objects.requireNonNull(value);
+    }
+    
+    /**
+     * 作者完全等于给定值
+     * 
+     * @param author 作者
+     * @return 查询条件
+     */
+    public static BookQuery authorEquals(String author) {
+        return new BookQuery(Field.AUTHOR, Match.EQUALS, author);
+    }
+    
+    /**
+     * 作者以给定值开头
+     * 
+     * @param prefix 前缀
+     * @return 查询条件
+     */
+    public static BookQuery authorStartsWith(String prefix) {
+        return new BookQuery(Field.AUTHOR, Match.PREFIX, prefix);
+    }
+    
+    /**
+     * 作者包含给定值
+     * 
+     * @param text 子串
+     * @return 查询条件
+     */
+    public static BookQuery authorContains(String text) {
+        return new BookQuery(Field.AUTHOR, Match.CONTAINS, text);
+    }
+    
+    /**
+     * 书名完全等于给定值
+     * 
+     * @param title 书名
+     * @return 查询条件
+     */
+    public static BookQuery titleEquals(String title) {
+        return new BookQuery(Field.TITLE, Match.EQUALS, title);
+    }
+    
+    /**
+     * 书名以给定值开头
+     * 
+     * @param prefix 前缀
+     * @return 查询条件
+     */
+    public static BookQuery titleStartsWith(String prefix) {
+        return new BookQuery(Field.TITLE, Match.PREFIX, prefix);
+    }
+    
+    /**
+     * 书名包含给定值
+     * 
+     * @param text 子串
+     * @return 查询条件
+     */
+    public static BookQuery titleContains(String text) {
+        return new BookQuery(Field.TITLE, Match.CONTAINS, text);
+    }
+    
+    /**
+     * 判断书籍是否满足条件，字段为null的书籍不满足任何条件
+     * 
+     * @param book 书籍
+     * @return 如果满足返回true
+     */
+    public boolean matches(Book book) {
+        String actual = fieldOf(book);
+        if (actual == null) {
+            return false;
+        }
+        switch (match) {
+            case EQUALS:
+                return actual.equals(value);
+            case PREFIX:
+                return actual.startsWith(value);
+            default:
+                return actual.contains(value);
+        }
+    }
+    
+    String fieldOf(Book book) {
+        return field == Field.TITLE ? book.getTitle() : book.getAuthor();
+    }
+    
+    Field getField() {
+        return field;
+    }
+    
+    Match getMatch() {
+        return match;
+    }
+    
+    String getValue() {
+        return value;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BookQuery{%s %s '%s'}", field, match, value);
+    }
+}
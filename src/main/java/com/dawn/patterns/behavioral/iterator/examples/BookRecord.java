@@ -0,0 +1,46 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+/**
+ * 书籍记录视图
+ * 由基于文件或缓冲区的存储在遍历时复用的只读游标，字段在被访问时才解码。
+ * 同一个记录对象会在遍历过程中指向不同的记录，需要保留时请调用{@link #toBook()}。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface BookRecord {
+    
+    /**
+     * 获取书名
+     * 
+     * @return 书名
+     */
+    String getTitle();
+    
+    /**
+     * 获取作者
+     * 
+     * @return 作者
+     */
+    String getAuthor();
+    
+    /**
+     * 判断作者是否等于给定值
+     * 基于缓冲区的实现可以直接比较编码后的字节，不为作者创建字符串
+     * 
+     * @param author 作者
+     * @return 如果相等返回true
+     */
+    default boolean authorEquals(String author) {
+        return getAuthor().equals(author);
+    }
+    
+    /**
+     * 复制为独立的Book对象
+     * 
+     * @return 新的书籍对象
+     */
+    default Book toBook() {
+        return new Book(getTitle(), getAuthor());
+    }
+}
@@ -0,0 +1,207 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * 书籍集合的紧凑二进制快照
+ * 用于进程重启时快速恢复书目：读取时通过FileChannel把文件分块读入直接缓冲区顺序解码，
+ * 并根据文件头中的记录数一次性预分配集合容量，加载过程中不再反复扩容复制。
+ * 
+ * 文件格式（文件头大端序，变长整数为无符号LEB128）：
+ * <pre>
+ * 文件头: int 魔数 | int 版本 | long 记录数
+ * 记录:   varint 书名字节数 | 书名UTF-8 | varint 作者编号 [| varint 作者字节数 | 作者UTF-8]
+ * </pre>
+ * 作者编号为0时后面紧跟作者原文，并按出现顺序分配下一个编号（字符串表最多65536项）；
+ * 编号n大于0时表示字符串表中的第n-1个作者。同一作者只存一次，加载后的书籍也共享同一个作者字符串。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class BookSnapshot {
+    
+    static final int MAGIC = 0x424B534E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int MAX_FIELD_BYTES = 0xFFFF;
+    static final int MAX_VARINT_BYTES = 5;
+    static final int MAX_STRING_TABLE_SIZE = 1 << 16;
+    static final int BUFFER_SIZE = 1 << 20;
+    
+    /**
+     * 数组能预分配的最大长度
+     */
+    private static final int MAX_PRESIZE = Integer.MAX_VALUE - 8;
+    
+    private BookSnapshot() {
+    }
+    
+    /**
+     * 把聚合中的全部书籍写入快照文件，已有文件会被覆盖
+     * 
+     * @param path 文件路径
+     * @param books 要写入的书籍
+     * @return 写入的书籍数量
+     * @throws IOException 如果写入失败
+     * @throws IllegalArgumentException 如果某本书的书名或作者为null
+     */
+    public static long write(Path path, Aggregate<Book> books) throws IOException {
+        try (BookSnapshotWriter writer = new BookSnapshotWriter(path)) {
+            return writer.writeAll(books);
+        }
+    }
+    
+    /**
+     * 从快照文件加载数组集合，数组按记录数一次分配
+     * 
+     * @param path 文件路径
+     * @return 包含快照中全部书籍的集合
+     * @throws IOException 如果文件无法读取、格式不正确或内容不完整
+     */
+    public static ArrayBookCollection loadArray(Path path) throws IOException {
+        ArrayBookCollection collection = new ArrayBookCollection();
+        read(path, collection::ensureCapacity, collection::addBook);
+        return collection;
+    }
+    
+    /**
+     * 从快照文件加载BookCollection，底层列表按记录数一次分配
+     * 
+     * @param path 文件路径
+     * @param collectionName 集合名称
+     * @return 包含快照中全部书籍的集合
+     * @throws IOException 如果文件无法读取、格式不正确或内容不完整
+     */
+    public static BookCollection load(Path path, String collectionName) throws IOException {
+        BookCollection collection = new BookCollection(collectionName);
+        read(path, collection::ensureCapacity, collection::addBook);
+        return collection;
+    }
+    
+    /**
+     * 流式读取快照文件中的全部书籍，内存占用与书籍数量无关
+     * 
+     * @param path 文件路径
+     * @param action 对每本书执行的操作
+     * @return 读取的书籍数量
+     * @throws IOException 如果文件无法读取、格式不正确或内容不完整
+     */
+    public static long read(Path path, Consumer<? super Book> action) throws IOException {
+        return read(path, count -> { }, action);
+    }
+    
+    private static long read(Path path, IntConsumer presize, Consumer<? super Book> action) throws IOException {
+        Objects.requireNonNull(action);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Decoder decoder = new Decoder(channel);
+            decoder.require(HEADER_SIZE);
+            if (decoder.buffer.getInt() != MAGIC || decoder.buffer.getInt() != VERSION) {
+                throw new IOException("不是有效的书籍快照文件: " + path);
+            }
+            long count = decoder.buffer.getLong();
+            // 每条记录至少2个字节（书名长度与作者编号各1字节），记录数不可能超过剩余字节数的一半；
+            // 先核对再预分配，损坏的文件头不会导致按错误的记录数分配内存
+            if (count < 0 || count > (channel.size() - HEADER_SIZE) / 2) {
+                throw new IOException("快照文件头的记录数与文件大小不符: " + count);
+            }
+            presize.accept((int) Math.min(count, MAX_PRESIZE));
+            for (long i = 0; i < count; i++) {
+                action.accept(decoder.readBook());
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * 快照解码器
+     * 缓冲区中剩余的字节不足一个字段时，把剩余部分移到开头再从通道读入后续内容
+     */
+    private static final class Decoder {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final byte[] scratch;
+        private final List<String> authors;
+        
+        Decoder(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            this.buffer.flip();
+            this.scratch = new byte[MAX_FIELD_BYTES];
+            this.authors = new ArrayList<>();
+        }
+        
+        Book readBook() throws IOException {
+            String title = readString();
+            int id = readVarint();
+            String author;
+            if (id == 0) {
+                author = readString();
+                if (authors.size() < MAX_STRING_TABLE_SIZE) {
+                    authors.add(author);
+                }
+            } else if (id > 0 && id <= authors.size()) {
+                author = authors.get(id - 1);
+            } else {
+                throw new IOException("作者编号超出字符串表: " + id);
+            }
+            return new Book(title, author);
+        }
+        
+        private String readString() throws IOException {
+            int length = readVarint();
+            if (length < 0 || length > MAX_FIELD_BYTES) {
+                throw new IOException("字段长度超出限制: " + length);
+            }
+            require(length);
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        
+        private int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (!buffer.hasRemaining()) {
+                    require(1);
+                }
+                byte b = buffer.get();
+                if (shift == 28 && (b & 0x7F) > 0x07) {
+                    // 第5个字节只剩3位有效，更多的位会溢出成负数
+                    throw new IOException("变长整数超出范围");
+                }
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("变长整数格式错误");
+        }
+        
+        /**
+         * 保证缓冲区中至少还有bytes个未读字节
+         */
+        void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("快照文件不完整");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 书籍快照的流式写入器
+ * 书籍逐本编码到一块直接缓冲区，写满后通过FileChannel写出，内存占用与书籍数量无关；
+ * 文件头中的记录数在关闭时回填。文件格式见{@link BookSnapshot}。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class BookSnapshotWriter implements Closeable {
+    
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> authorIds;
+    private long count;
+    private boolean closed;
+    
+    /**
+     * 创建快照文件并写入文件头，已有文件会被覆盖
+     * 
+     * @param path 文件路径
+     * @throws IOException 如果文件无法创建
+     */
+    public BookSnapshotWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BookSnapshot.BUFFER_SIZE);
+        this.authorIds = new HashMap<>();
+        // 先占位写入文件头，记录数在关闭时回填
+        buffer.putInt(BookSnapshot.MAGIC).putInt(BookSnapshot.VERSION).putLong(0);
+    }
+    
+    /**
+     * 写入一本书籍
+     * 
+     * @param book 书籍
+     * @throws IOException 如果写入失败
+     * @throws IllegalArgumentException 如果书籍、书名或作者为null，或书名、作者的UTF-8编码超过65535字节
+     */
+    public void write(Book book) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("写入器已关闭");
+        }
+        // 快照格式不能表示null字段或超长字段：两个字段都先编码并检查，再写入任何字节，避免留下半条记录
+        if (book == null || book.getTitle() == null || book.getAuthor() == null) {
+            throw new IllegalArgumentException("快照不支持为null的书籍、书名或作者: " + book);
+        }
+        byte[] title = encode(book.getTitle());
+        String author = book.getAuthor();
+        Integer id = authorIds.get(author);
+        byte[] authorBytes = id == null ? encode(author) : null;
+        putString(title);
+        if (id != null) {
+            ensureRemaining(BookSnapshot.MAX_VARINT_BYTES);
+            putVarint(id + 1);
+        } else {
+            // 第一次出现的作者写入原文，字符串表未满时分配编号，之后只写编号
+            ensureRemaining(1);
+            putVarint(0);
+            putString(authorBytes);
+            if (authorIds.size() < BookSnapshot.MAX_STRING_TABLE_SIZE) {
+                authorIds.put(author, authorIds.size());
+            }
+        }
+        count++;
+    }
+    
+    /**
+     * 写入聚合中的全部书籍
+     * 
+     * @param books 要写入的书籍
+     * @return 本次写入的书籍数量
+     * @throws IOException 如果写入失败
+     */
+    public long writeAll(Aggregate<Book> books) throws IOException {
+        long before = count;
+        Iterator<Book> iterator = books.createIterator();
+        while (iterator.hasNext()) {
+            write(iterator.next());
+        }
+        return count - before;
+    }
+    
+    /**
+     * 获取已写入的书籍数量
+     * 
+     * @return 书籍数量
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * 按UTF-8编码字段并检查长度
+     * 
+     * @throws IllegalArgumentException 如果编码后超过65535字节
+     */
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > BookSnapshot.MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException("字段超过" + BookSnapshot.MAX_FIELD_BYTES + "字节: "
+                    + value.substring(0, 32) + "...");
+        }
+        return bytes;
+    }
+    
+    private void putString(byte[] bytes) throws IOException {
+        ensureRemaining(BookSnapshot.MAX_VARINT_BYTES + bytes.length);
+        putVarint(bytes.length);
+        buffer.put(bytes);
+    }
+    
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+    
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    /**
+     * 写出缓冲区剩余内容、回填记录数并关闭文件
+     * 
+     * @throws IOException 如果写入失败
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            buffer.putInt(BookSnapshot.MAGIC).putInt(BookSnapshot.VERSION).putLong(count).flip();
+            long position = 0;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BookSnapshotWriter{count=%d, authors=%d, closed=%s}", count, authorIds.size(), closed);
+    }
+}
@@ -0,0 +1,265 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 带位置索引的书籍存储（仅供BookCollection内部使用）
+ * 书籍按插入顺序保存在数组中，另有一个哈希表把书籍映射到它在数组中的位置，
+ * 相等的书籍按插入顺序串成链（nextSame），因此contains和移除第一本相等书籍都是O(1)。
+ * 
+ * 移除时只把位置置空（墓碑），不移动后面的元素，并在按位置统计墓碑的树状数组中记一笔；
+ * 按位置读取时借助树状数组跳过墓碑（O(log n)），不修改任何内部状态，可以被多个线程同时读取。
+ * 墓碑超过已用位置的1/4、数组写满或由拥有者显式调用{@link #compact()}时才一次性压缩，
+ * 把墓碑之后的书籍前移并修正位置索引，均摊到每次移除是O(1)。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+final class BookTable {
+    
+    private static final int DEFAULT_CAPACITY = 10;
+    
+    /**
+     * 墓碑数超过已用位置的1/COMPACT_RATIO时在移除时压缩
+     */
+    private static final int COMPACT_RATIO = 4;
+    
+    private Book[] slots;
+    private int[] nextSame;
+    private final Map<Book, Chain> positions;
+    private int end;
+    private int size;
+    private int tombstones;
+    /**
+     * 墓碑位置的树状数组（下标从1开始），只在有墓碑时有意义，压缩后清零
+     */
+    private int[] removed;
+    
+    BookTable() {
+        this.slots = new Book[DEFAULT_CAPACITY];
+        this.nextSame = new int[DEFAULT_CAPACITY];
+        this.positions = new HashMap<>();
+    }
+    
+    /**
+     * 在末尾追加书籍
+     * 
+     * @param book 书籍
+     */
+    void add(Book book) {
+        if (end == slots.length) {
+            if (tombstones > 0) {
+                compact();
+            }
+            if (end == slots.length) {
+                resize(Math.max(end + (end >> 1), end + 1));
+            }
+        }
+        int position = end++;
+        slots[position] = book;
+        nextSame[position] = -1;
+        Chain chain = positions.get(book);
+        if (chain == null) {
+            positions.put(book, new Chain(position));
+        } else {
+            nextSame[chain.tail] = position;
+            chain.tail = position;
+        }
+        size++;
+    }
+    
+    /**
+     * 移除第一本与book相等的书籍
+     * 
+     * @param book 书籍
+     * @return 如果找到并移除返回true
+     */
+    boolean remove(Book book) {
+        Chain chain = positions.get(book);
+        if (chain == null) {
+            return false;
+        }
+        int position = chain.head;
+        int next = nextSame[position];
+        if (next < 0) {
+            positions.remove(book);
+        } else {
+            chain.head = next;
+        }
+        slots[position] = null;
+        size--;
+        if (size == 0) {
+            // 全部移除后直接回到起点，不需要压缩
+            Arrays.fill(slots, 0, end, null);
+            end = 0;
+            clearTombstones();
+        } else {
+            markRemoved(position);
+            if (tombstones > end / COMPACT_RATIO) {
+                compact();
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 是否包含与book相等的书籍
+     * 
+     * @param book 书籍
+     * @return 如果包含返回true
+     */
+    boolean contains(Book book) {
+        return positions.containsKey(book);
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * 按插入顺序获取第index本书籍
+     * 没有墓碑时直接读取数组，有墓碑时通过树状数组定位，不修改任何内部状态
+     * 
+     * @param index 位置
+     * @return 书籍
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    Book get(int index) {
+        Objects.checkIndex(index, size);
+        if (tombstones == 0) {
+            return slots[index];
+        }
+        return slots[locate(index)];
+    }
+    
+    /**
+     * 按插入顺序排列的书籍列表，只在下一次修改之前有效
+     * 没有墓碑时是数组的只读视图，有墓碑时复制一份，不修改任何内部状态
+     * 
+     * @return 按插入顺序排列的书籍
+     */
+    List<Book> asList() {
+        if (tombstones == 0) {
+            return Collections.unmodifiableList(Arrays.asList(slots).subList(0, size));
+        }
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < end; i++) {
+            if (slots[i] != null) {
+                books.add(slots[i]);
+            }
+        }
+        return Collections.unmodifiableList(books);
+    }
+    
+    /**
+     * 保证至少能容纳minCapacity本书籍
+     * 
+     * @param minCapacity 最小容量
+     */
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity > slots.length) {
+            if (tombstones != 0) {
+                compact();
+            }
+            resize(minCapacity);
+        }
+    }
+    
+    /**
+     * 去掉所有墓碑：书籍前移、保持顺序，并把位置索引中的旧位置换成新位置
+     * 会改写内部数组，只能由修改集合的一方调用，例如在创建迭代器之前
+     */
+    void compact() {
+        if (tombstones == 0) {
+            return;
+        }
+        int[] remap = new int[end];
+        int live = 0;
+        for (int i = 0; i < end; i++) {
+            remap[i] = live;
+            if (slots[i] != null) {
+                live++;
+            }
+        }
+        for (int i = 0; i < end; i++) {
+            Book book = slots[i];
+            if (book != null) {
+                int target = remap[i];
+                int next = nextSame[i];
+                slots[target] = book;
+                nextSame[target] = next < 0 ? -1 : remap[next];
+            }
+        }
+        Arrays.fill(slots, live, end, null);
+        for (Chain chain : positions.values()) {
+            chain.head = remap[chain.head];
+            chain.tail = remap[chain.tail];
+        }
+        end = live;
+        clearTombstones();
+    }
+    
+    /**
+     * 在树状数组中记录position处的墓碑
+     */
+    private void markRemoved(int position) {
+        if (removed == null || removed.length != slots.length + 1) {
+            removed = new int[slots.length + 1];
+        }
+        for (int i = position + 1; i < removed.length; i += i & -i) {
+            removed[i]++;
+        }
+        tombstones++;
+    }
+    
+    private void clearTombstones() {
+        if (tombstones != 0) {
+            Arrays.fill(removed, 0);
+            tombstones = 0;
+        }
+    }
+    
+    /**
+     * 找到第index本未被移除的书籍所在的位置：在树状数组上按二进制从高到低逼近，
+     * 每一步用节点覆盖的位置数减去其中的墓碑数得到存活书籍数
+     */
+    private int locate(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(removed.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < removed.length) {
+                int live = step - removed[next];
+                if (live < remaining) {
+                    position = next;
+                    remaining -= live;
+                }
+            }
+        }
+        return position;
+    }
+    
+    private void resize(int capacity) {
+        slots = Arrays.copyOf(slots, capacity);
+        nextSame = Arrays.copyOf(nextSame, capacity);
+    }
+    
+    /**
+     * 相等书籍的位置链，head为最早插入的位置，tail为最近插入的位置
+     */
+    private static final class Chain {
+        int head;
+        int tail;
+        
+        Chain(int position) {
+            this.head = position;
+            this.tail = position;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.ChangeEvent;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 有界变更日志（仅供集合内部使用）
+ * 最近retention次变更保存在环形数组中（元素 + 是否为移除），版本号由位置推算，
+ * 记录一次变更不创建任何对象；超过保留数量时最早的变更被覆盖。
+ * 查询时把区间内的变更按元素压缩，相互抵消的添加和移除不再返回。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+final class ChangeLog<T> {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private Object[] elements;
+    private boolean[] removals;
+    private int retention;
+    private int head;
+    private int count;
+    private long version;
+    
+    /**
+     * 构造函数
+     * 
+     * @param retention 最多保留的变更数量，0表示不保留
+     */
+    ChangeLog(int retention) {
+        checkRetention(retention);
+        this.retention = retention;
+        this.elements = new Object[0];
+        this.removals = new boolean[0];
+    }
+    
+    /**
+     * 记录一次变更，版本加1
+     * 
+     * @param removed 是否为移除
+     * @param element 被添加或移除的元素
+     */
+    void record(boolean removed, T element) {
+        version++;
+        if (retention == 0) {
+            return;
+        }
+        if (count == elements.length && count < retention) {
+            resize(Math.min(Math.max(INITIAL_CAPACITY, count * 2), retention));
+        }
+        int slot;
+        if (count == elements.length) {
+            // 已达保留上限，覆盖最早的变更
+            slot = head;
+            head = (head + 1) % elements.length;
+        } else {
+            slot = (head + count) % elements.length;
+            count++;
+        }
+        elements[slot] = element;
+        removals[slot] = removed;
+    }
+    
+    long version() {
+        return version;
+    }
+    
+    long oldestVersion() {
+        return version - count;
+    }
+    
+    /**
+     * 修改保留数量，只保留最近的变更
+     * 
+     * @param retention 新的保留数量
+     */
+    void setRetention(int retention) {
+        checkRetention(retention);
+        int keep = Math.min(count, retention);
+        head = (head + count - keep) % Math.max(elements.length, 1);
+        count = keep;
+        this.retention = retention;
+        resize(Math.min(Math.max(keep, elements.length), retention));
+    }
+    
+    /**
+     * 把环形数组整理到从0开始的新数组
+     */
+    private void resize(int capacity) {
+        Object[] newElements = new Object[capacity];
+        boolean[] newRemovals = new boolean[capacity];
+        for (int i = 0; i < count; i++) {
+            int slot = (head + i) % elements.length;
+            newElements[i] = elements[slot];
+            newRemovals[i] = removals[slot];
+        }
+        elements = newElements;
+        removals = newRemovals;
+        head = 0;
+    }
+    
+    /**
+     * 压缩指定版本之后的变更
+     * 每个元素只保留净变化：净添加n次返回n个ADDED，净移除n次返回n个REMOVED，
+     * 事件的版本取该元素最后一次变更的版本，按元素第一次变更的顺序排列
+     * 
+     * @param since 上次处理到的版本
+     * @return 压缩后的变更
+     */
+    Iterator<ChangeEvent<T>> since(long since) {
+        if (since < oldestVersion() || since > version) {
+            throw new IllegalArgumentException(String.format(
+                    "版本%d不在可查询范围[%d, %d]内，需要重新全量遍历", since, oldestVersion(), version));
+        }
+        int first = count - (int) (version - since);
+        Map<T, long[]> deltas = new LinkedHashMap<>();
+        for (int i = first; i < count; i++) {
+            int slot = (head + i) % elements.length;
+            @SuppressWarnings("unchecked")
+            T element = (T) elements[slot];
+            long[] delta = deltas.computeIfAbsent(element, k -> new long[2]);
+            delta[0] += removals[slot] ? -1 : 1;
+            delta[1] = oldestVersion() + i + 1;
+        }
+        List<ChangeEvent<T>> events = new ArrayList<>();
+        for (Map.Entry<T, long[]> entry : deltas.entrySet()) {
+            long net = entry.getValue()[0];
+            ChangeEvent.Type type = net > 0 ? ChangeEvent.Type.ADDED : ChangeEvent.Type.REMOVED;
+            for (long n = Math.abs(net); n > 0; n--) {
+                events.add(new ChangeEvent<>(type, entry.getKey(), entry.getValue()[1]));
+            }
+        }
+        return new EventIterator<>(events);
+    }
+    
+    private static void checkRetention(int retention) {
+        if (retention < 0) {
+            throw new IllegalArgumentException("保留数量不能为负数: " + retention);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ChangeLog{version=%d, retained=%d, retention=%d}", version, count, retention);
+    }
+    
+    /**
+     * 压缩结果迭代器
+     */
+    private static final class EventIterator<T> implements Iterator<ChangeEvent<T>> {
+        private final List<ChangeEvent<T>> events;
+        private int currentIndex;
+        
+        EventIterator(List<ChangeEvent<T>> events) {
+            this.events = events;
+            this.currentIndex = 0;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return currentIndex < events.size();
+        }
+        
+        @Override
+        public ChangeEvent<T> next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多变更");
+            }
+            return events.get(currentIndex++);
+        }
+    }
+}
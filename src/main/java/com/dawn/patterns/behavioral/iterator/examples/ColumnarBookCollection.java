@@ -0,0 +1,273 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.RandomAccessAggregate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 列式存储的书籍集合实现
+ * 不保存Book对象，而是把书名和作者分别存放在平行数组中：
+ * 书名保存在String[]中，作者经过字典编码，每本书只保存一个int类型的作者编号。
+ * 
+ * 大量书籍共用少数作者时，每条记录只占一个书名引用和一个int，
+ * 重复的作者字符串在字典中只保存一份；Book对象在遍历时按需创建。
+ * 按作者过滤时只比较int编号，不比较字符串，也不为不匹配的记录创建Book。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class ColumnarBookCollection implements RandomAccessAggregate<Book> {
+    
+    private static final int DEFAULT_CAPACITY = 10;
+    
+    /**
+     * 表示作者不在字典中的编号
+     */
+    private static final int NO_AUTHOR = -1;
+    
+    /**
+     * 字典中还不存在的作者：作为过滤条件时在遍历中重新查找，作者加入字典后再按其编号过滤
+     */
+    private static final int UNKNOWN_AUTHOR = -2;
+    
+    private String[] titles;
+    private int[] authorIds;
+    private int size;
+    
+    private String[] authors;
+    private int authorCount;
+    private final Map<String, Integer> authorDictionary;
+    
+    /**
+     * 构造函数
+     */
+    public ColumnarBookCollection() {
+        this.titles = new String[DEFAULT_CAPACITY];
+        this.authorIds = new int[DEFAULT_CAPACITY];
+        this.size = 0;
+        this.authors = new String[DEFAULT_CAPACITY];
+        this.authorCount = 0;
+        this.authorDictionary = new HashMap<>();
+    }
+    
+    /**
+     * 添加书籍
+     * 
+     * @param book 要添加的书籍
+     */
+    public void addBook(Book book) {
+        if (book == null) return;
+        addBook(book.getTitle(), book.getAuthor());
+    }
+    
+    /**
+     * 直接按字段添加书籍，加载数据时无需先创建Book对象
+     * 
+     * @param title 书名
+     * @param author 作者
+     */
+    public void addBook(String title, String author) {
+        if (size == titles.length) {
+            // 扩容
+            int newCapacity = titles.length * 2;
+            titles = Arrays.copyOf(titles, newCapacity);
+            authorIds = Arrays.copyOf(authorIds, newCapacity);
+        }
+        titles[size] = title;
+        authorIds[size] = encodeAuthor(author);
+        size++;
+    }
+    
+    /**
+     * 获取作者编号，作者第一次出现时加入字典
+     */
+    private int encodeAuthor(String author) {
+        Integer id = authorDictionary.get(author);
+        if (id != null) {
+            return id;
+        }
+        if (authorCount == authors.length) {
+            authors = Arrays.copyOf(authors, authorCount * 2);
+        }
+        authors[authorCount] = author;
+        authorDictionary.put(author, authorCount);
+        return authorCount++;
+    }
+    
+    /**
+     * 根据索引获取书籍，每次调用都会创建新的Book对象
+     * 
+     * @param index 索引
+     * @return 书籍
+     */
+    public Book getBook(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("索引越界: " + index);
+        }
+        return new Book(titles[index], authors[authorIds[index]]);
+    }
+    
+    @Override
+    public Book getElement(int index) {
+        return getBook(index);
+    }
+    
+    @Override
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * 获取不同作者的数量
+     * 
+     * @return 字典中的作者数量
+     */
+    public int getAuthorCount() {
+        return authorCount;
+    }
+    
+    /**
+     * 统计指定作者的书籍数量，只比较作者编号，不创建任何对象
+     * 
+     * @param author 作者
+     * @return 书籍数量
+     */
+    public int countByAuthor(String author) {
+        int authorId = lookupAuthor(author);
+        if (authorId == NO_AUTHOR) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (authorIds[i] == authorId) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 创建迭代器
+     * 
+     * @return 用于遍历列式存储的迭代器
+     */
+    @Override
+    public Iterator<Book> createIterator() {
+        return new ColumnarBookIterator(this, NO_AUTHOR, null);
+    }
+    
+    /**
+     * 创建只遍历指定作者书籍的迭代器
+     * 过滤在作者编号列上完成，只为匹配的记录创建Book；
+     * 作者暂时不在字典中时同样会返回迭代器创建后追加的该作者书籍
+     * 
+     * @param author 作者
+     * @return 只返回该作者书籍的迭代器
+     */
+    public Iterator<Book> createAuthorIterator(String author) {
+        int authorId = lookupAuthor(author);
+        // 作者不在字典中：NO_AUTHOR表示不过滤，这里改用UNKNOWN_AUTHOR，由迭代器在遍历时重新查找
+        return new ColumnarBookIterator(this, authorId == NO_AUTHOR ? UNKNOWN_AUTHOR : authorId, author);
+    }
+    
+    private int lookupAuthor(String author) {
+        Integer id = authorDictionary.get(author);
+        return id == null ? NO_AUTHOR : id;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ColumnarBookCollection{size=%d, authors=%d}", size, authorCount);
+    }
+    
+    /**
+     * 列式书籍迭代器
+     * authorFilter为NO_AUTHOR时遍历全部书籍，否则只返回该作者编号的书籍；
+     * 为UNKNOWN_AUTHOR时每次移动前按作者名重新查找编号，找到后改为按编号过滤
+     */
+    private static class ColumnarBookIterator implements Iterator<Book> {
+        private final ColumnarBookCollection collection;
+        private final String author;
+        private int authorFilter;
+        private int currentIndex;
+        
+        ColumnarBookIterator(ColumnarBookCollection collection, int authorFilter, String author) {
+            this.collection = collection;
+            this.author = author;
+            this.authorFilter = authorFilter;
+            this.currentIndex = 0;
+            seek();
+        }
+        
+        /**
+         * 移动到下一条满足作者条件的记录
+         */
+        private void seek() {
+            if (authorFilter == NO_AUTHOR || (authorFilter == UNKNOWN_AUTHOR && !resolveAuthor())) {
+                return;
+            }
+            int[] authorIds = collection.authorIds;
+            int size = collection.size;
+            while (currentIndex < size && authorIds[currentIndex] != authorFilter) {
+                currentIndex++;
+            }
+        }
+        
+        /**
+         * 重新查找还不在字典中的作者
+         * 仍然找不到时现有记录都不可能匹配，直接跳到末尾，之后追加的记录留到下一次查找
+         * 
+         * @return 找到作者编号时返回true
+         */
+        private boolean resolveAuthor() {
+            int authorId = collection.lookupAuthor(author);
+            if (authorId == NO_AUTHOR) {
+                currentIndex = collection.size;
+                return false;
+            }
+            authorFilter = authorId;
+            return true;
+        }
+        
+        /**
+         * 先移动到下一条满足条件的记录再判断，迭代器创建后追加的书籍同样经过作者过滤
+         */
+        @Override
+        public boolean hasNext() {
+            seek();
+            return currentIndex < collection.size;
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            int index = currentIndex++;
+            return new Book(collection.titles[index], collection.authors[collection.authorIds[index]]);
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            Objects.requireNonNull(action);
+            if (authorFilter == UNKNOWN_AUTHOR && !resolveAuthor()) {
+                return;
+            }
+            String[] titles = collection.titles;
+            int[] authorIds = collection.authorIds;
+            String[] authors = collection.authors;
+            int size = collection.size;
+            for (int i = currentIndex; i < size; i++) {
+                int authorId = authorIds[i];
+                if (authorFilter == NO_AUTHOR || authorId == authorFilter) {
+                    action.accept(new Book(titles[i], authors[authorId]));
+                }
+            }
+            currentIndex = Math.max(currentIndex, size);
+        }
+    }
+}
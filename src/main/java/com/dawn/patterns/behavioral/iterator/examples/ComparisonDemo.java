@@ -59,10 +59,7 @@ public class ComparisonDemo {
      */
     private static void processBooks(Aggregate<Book> collection) {
         Iterator<Book> iterator = collection.createIterator();
-        while (iterator.hasNext()) {
-            Book book = iterator.next();
-            System.out.println("    - " + book.getTitle());
-        }
+        iterator.forEachRemaining(book -> System.out.println("    - " + book.getTitle()));
     }
 
     /**
@@ -83,10 +80,12 @@ public class ComparisonDemo {
         System.out.println("  🔗 遍历链表结构 (需要暴露Node结构)：");
         LinkedBookCollection.Node current = linkedCollection.getHead();
         while (current != null) {
-            System.out.println("    - " + current.book.getTitle());
+            for (int i = 0; i < current.count; i++) {
+                System.out.println("    - " + current.books[i].getTitle());
+            }
             current = current.next;
         }
-        System.out.println("    代码特点: Node current = head; while (current != null) { current = current.next }");
+        System.out.println("    代码特点: Node current = head; while (current != null) { 遍历current.books; current = current.next }");
         
         System.out.println("  📋 遍历ArrayList结构 (需要暴露内部ArrayList)：");
         List<Book> books = getInternalBooks(arrayListCollection);
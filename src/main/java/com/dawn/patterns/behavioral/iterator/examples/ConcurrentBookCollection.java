@@ -0,0 +1,330 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.RandomAccessAggregate;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 线程安全的书籍集合实现
+ * 书籍保存在固定大小的分块中，集合的当前状态是一个不可变的{@link Snapshot}（分块表 + 大小），
+ * 通过volatile引用发布。读取方只读取一次该引用，之后的遍历完全不加锁，
+ * 看到的始终是创建迭代器那一刻的一致快照，不会因为并发的添加或删除而跳过或重复元素。
+ * 
+ * 写入方之间用一把锁串行化，但从不阻塞读取方：
+ * 追加时直接写入尾分块中旧快照大小之外的位置（旧快照永远不会读到这些位置），
+ * 再发布新的快照；删除时复制受影响的分块（写时复制），旧快照仍引用原来的分块。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class ConcurrentBookCollection implements Aggregate<Book> {
+    
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    
+    private final ReentrantLock writeLock;
+    private volatile Snapshot state;
+    
+    /**
+     * 构造函数
+     */
+    public ConcurrentBookCollection() {
+        this.writeLock = new ReentrantLock();
+        this.state = new Snapshot(new Book[4][], 0);
+    }
+    
+    /**
+     * 添加书籍
+     * 
+     * @param book 要添加的书籍
+     */
+    public void addBook(Book book) {
+        if (book == null) return;
+        
+        writeLock.lock();
+        try {
+            Snapshot current = state;
+            Book[][] chunks = appendSlot(current.chunks, current.size);
+            chunks[current.size >>> CHUNK_SHIFT][current.size & CHUNK_MASK] = book;
+            state = new Snapshot(chunks, current.size + 1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * 批量添加书籍，整批只获取一次锁、发布一次快照
+     * 
+     * @param books 要添加的书籍
+     * @return 实际添加的数量
+     */
+    public int addAll(Aggregate<Book> books) {
+        Iterator<Book> iterator = books.createIterator();
+        writeLock.lock();
+        try {
+            Snapshot current = state;
+            Book[][] chunks = current.chunks;
+            int size = current.size;
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                if (book != null) {
+                    chunks = appendSlot(chunks, size);
+                    chunks[size >>> CHUNK_SHIFT][size & CHUNK_MASK] = book;
+                    size++;
+                }
+            }
+            state = new Snapshot(chunks, size);
+            return size - current.size;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * 确保位置index所在的分块存在
+     * 分块表和尾分块在旧快照大小之外的部分可以直接写入，只有分块表满时才复制分块表
+     */
+    private static Book[][] appendSlot(Book[][] chunks, int index) {
+        int chunkIndex = index >>> CHUNK_SHIFT;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = new Book[CHUNK_SIZE];
+        }
+        return chunks;
+    }
+    
+    /**
+     * 移除书籍（第一本相等的书籍）
+     * 从被删除位置所在的分块开始复制后续分块，正在遍历的旧快照不受影响。
+     * 
+     * 代价是O(N)：在持有写锁时线性查找，并复制、左移被删除位置之后的全部分块。
+     * 这里有意不用BookTable那样的墓碑：快照必须保持稠密，读取方才能不加锁地按位置O(1)访问、
+     * 按区间对半拆分并整块复制；带墓碑的快照会让每个读取方都跳过空洞，按位置访问也要先换算排名。
+     * 该集合面向读多写少的场景，删除很少发生，而且只阻塞其他写入方，从不阻塞读取方。
+     * 
+     * @param book 要移除的书籍
+     * @return 如果成功移除返回true，否则返回false
+     */
+    public boolean removeBook(Book book) {
+        writeLock.lock();
+        try {
+            Snapshot current = state;
+            int index = current.indexOf(book);
+            if (index < 0) {
+                return false;
+            }
+            int size = current.size;
+            int firstChunk = index >>> CHUNK_SHIFT;
+            int lastChunk = (size - 1) >>> CHUNK_SHIFT;
+            Book[][] chunks = current.chunks.clone();
+            for (int c = firstChunk; c <= lastChunk; c++) {
+                chunks[c] = current.chunks[c].clone();
+            }
+            // 后续元素整体左移一位：分块内整段移动，分块的最后一格由下一分块的第一本书补上
+            for (int c = firstChunk; c <= lastChunk; c++) {
+                int from = c == firstChunk ? index & CHUNK_MASK : 0;
+                int last = c == lastChunk ? (size - 1) & CHUNK_MASK : CHUNK_MASK;
+                System.arraycopy(chunks[c], from + 1, chunks[c], from, last - from);
+                chunks[c][last] = c == lastChunk ? null : chunks[c + 1][0];
+            }
+            state = new Snapshot(chunks, size - 1);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * 获取当前快照
+     * 快照不可变，可以在任意线程中反复遍历或按位置访问
+     * 
+     * @return 当前快照
+     */
+    public Snapshot snapshot() {
+        return state;
+    }
+    
+    /**
+     * 获取当前书籍数量
+     * 
+     * @return 书籍数量
+     */
+    public int getSize() {
+        return state.size;
+    }
+    
+    /**
+     * 根据索引获取当前快照中的书籍
+     * 
+     * @param index 书籍索引
+     * @return 指定索引的书籍
+     * @throws IndexOutOfBoundsException 如果索引越界
+     */
+    public Book getBook(int index) {
+        return state.getElement(index);
+    }
+    
+    /**
+     * 创建遍历当前快照的迭代器
+     * 
+     * @return 用于遍历书籍集合的迭代器
+     */
+    @Override
+    public Iterator<Book> createIterator() {
+        return state.createIterator();
+    }
+    
+    /**
+     * 创建遍历当前快照的可拆分迭代器
+     * 
+     * @return 覆盖当前快照的可拆分迭代器
+     */
+    @Override
+    public SplittableIterator<Book> createSplittableIterator() {
+        return state.createSplittableIterator();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ConcurrentBookCollection{size=%d}", getSize());
+    }
+    
+    /**
+     * 集合在某一时刻的不可变快照
+     * 只读取[0, size)范围内的位置，这些位置在快照发布后不会再被修改
+     */
+    public static final class Snapshot implements RandomAccessAggregate<Book> {
+        private final Book[][] chunks;
+        private final int size;
+        
+        Snapshot(Book[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+        
+        @Override
+        public int getSize() {
+            return size;
+        }
+        
+        @Override
+        public Book getElement(int index) {
+            Objects.checkIndex(index, size);
+            return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+        
+        int indexOf(Book book) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(book, chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        @Override
+        public Iterator<Book> createIterator() {
+            return new SnapshotIterator(chunks, 0, size);
+        }
+        
+        @Override
+        public SplittableIterator<Book> createSplittableIterator() {
+            return new SnapshotIterator(chunks, 0, size);
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Snapshot{size=%d}", size);
+        }
+    }
+    
+    /**
+     * 快照迭代器
+     * 遍历快照中[origin, fence)范围的书籍，可按区间对半拆分
+     */
+    private static class SnapshotIterator implements SplittableIterator<Book> {
+        private final Book[][] chunks;
+        private int currentIndex;
+        private final int fence;
+        
+        SnapshotIterator(Book[][] chunks, int origin, int fence) {
+            this.chunks = chunks;
+            this.currentIndex = origin;
+            this.fence = fence;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return currentIndex < fence;
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多书籍可以迭代");
+            }
+            int index = currentIndex++;
+            return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+        
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(Math.min(n, fence - currentIndex), 0);
+            currentIndex += (int) skipped;
+            return skipped;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            Objects.requireNonNull(action);
+            int index = currentIndex;
+            while (index < fence) {
+                Book[] chunk = chunks[index >>> CHUNK_SHIFT];
+                int end = Math.min(fence, (index | CHUNK_MASK) + 1);
+                for (int i = index & CHUNK_MASK, last = i + (end - index); i < last; i++) {
+                    action.accept(chunk[i]);
+                }
+                index = end;
+            }
+            currentIndex = fence;
+        }
+        
+        @Override
+        public int nextBatch(Book[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            int copied = 0;
+            while (copied < len && currentIndex < fence) {
+                int inChunk = currentIndex & CHUNK_MASK;
+                int count = Math.min(Math.min(len - copied, fence - currentIndex), CHUNK_SIZE - inChunk);
+                System.arraycopy(chunks[currentIndex >>> CHUNK_SHIFT], inChunk, dst, off + copied, count);
+                currentIndex += count;
+                copied += count;
+            }
+            return copied;
+        }
+        
+        @Override
+        public SplittableIterator<Book> trySplit() {
+            int mid = (currentIndex + fence) >>> 1;
+            if (mid <= currentIndex) {
+                return null;
+            }
+            SnapshotIterator prefix = new SnapshotIterator(chunks, currentIndex, mid);
+            currentIndex = mid;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return fence - currentIndex;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 分隔符文本格式（TSV/CSV）的书目文件
+ * 每行一本书：书名、分隔符、作者，多余的列被忽略，空行被跳过，行尾可以是\n或\r\n。
+ * 以双引号开头的字段按CSV规则解析，字段内可以包含分隔符和换行，两个连续的双引号表示一个双引号。
+ * 
+ * 遍历时通过FileChannel把文件分块读入直接缓冲区，在缓冲区内定位字段边界，
+ * 不把整个文件读入内存，也不先转换成字符串；每次创建迭代器都重新打开文件，读到末尾时关闭。
+ * {@link #forEachRecord(Consumer)}和{@link #filter(Predicate)}把复用的{@link BookRecord}游标交给调用方，
+ * 字段只在被访问时才解码，authorEquals直接比较缓冲区中的UTF-8字节，
+ * 被过滤掉的行不会创建任何字符串或Book对象。
+ * 
+ * 打开或读取失败、格式错误时抛出{@link UncheckedIOException}。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class DelimitedBookFile implements Aggregate<Book> {
+    
+    /**
+     * 读取文件的缓冲区大小，单条记录不能超过该大小
+     */
+    static final int CHUNK_SIZE = 1 << 20;
+    
+    private static final byte QUOTE = '"';
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    
+    private final Path path;
+    private final byte delimiter;
+    private final boolean hasHeader;
+    
+    /**
+     * 构造函数，以制表符分隔（TSV），没有表头
+     * 
+     * @param path 文件路径
+     */
+    public DelimitedBookFile(Path path) {
+        this(path, '\t', false);
+    }
+    
+    /**
+     * 构造函数，没有表头
+     * 
+     * @param path 文件路径
+     * @param delimiter 分隔符，例如'\t'或','
+     */
+    public DelimitedBookFile(Path path, char delimiter) {
+        this(path, delimiter, false);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param path 文件路径
+     * @param delimiter 分隔符，必须是ASCII字符，不能是双引号或换行符
+     * @param hasHeader 第一行是否为表头，表头行在遍历时被跳过
+     */
+    public DelimitedBookFile(Path path, char delimiter, boolean hasHeader) {
+        if (path == null) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+        if (delimiter >= 0x80 || delimiter == QUOTE || delimiter == NEWLINE || delimiter == CARRIAGE_RETURN) {
+            throw new IllegalArgumentException("不支持的分隔符: " + delimiter);
+        }
+        this.path = path;
+        this.delimiter = (byte) delimiter;
+        this.hasHeader = hasHeader;
+    }
+    
+    /**
+     * 获取文件路径
+     * 
+     * @return 文件路径
+     */
+    public Path getPath() {
+        return path;
+    }
+    
+    /**
+     * 创建迭代器，每条记录解码为新的Book对象
+     * 迭代器持有打开的文件，读到末尾时自动关闭，提前放弃遍历时应调用close()
+     * 
+     * @return 用于遍历文件的迭代器
+     */
+    @Override
+    public DelimitedBookIterator createIterator() {
+        return new DelimitedBookIterator(new RecordCursor(this), null);
+    }
+    
+    /**
+     * 在解码之前按记录过滤的聚合
+     * 过滤条件拿到的是复用的记录游标，只访问authorEquals的条件不会为被过滤掉的行分配对象，
+     * 只有通过过滤的行才创建Book
+     * 
+     * <pre>
+     * Aggregate&lt;Book&gt; gof = dump.filter(record -&gt; record.authorEquals("GoF"));
+     * </pre>
+     * 
+     * @param filter 记录过滤条件，不要在条件之外保留记录对象
+     * @return 只包含满足条件的书籍的聚合
+     */
+    public Aggregate<Book> filter(Predicate<? super BookRecord> filter) {
+        Objects.requireNonNull(filter);
+        return () -> new DelimitedBookIterator(new RecordCursor(this), filter);
+    }
+    
+    /**
+     * 使用同一个可复用的记录游标遍历全部记录
+     * 字段只在被访问时才解码，只读取作者的消费者不会为书名创建字符串
+     * 
+     * @param action 对每条记录执行的操作，不要在回调之外保留记录对象
+     */
+    public void forEachRecord(Consumer<? super BookRecord> action) {
+        Objects.requireNonNull(action);
+        try (RecordCursor cursor = new RecordCursor(this)) {
+            while (cursor.advance()) {
+                action.accept(cursor);
+            }
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("DelimitedBookFile{path=%s, delimiter=%s, header=%s}",
+                path, delimiter == '\t' ? "\\t" : String.valueOf((char) delimiter), hasHeader);
+    }
+    
+    /**
+     * 分隔符文件书籍迭代器
+     */
+    public static final class DelimitedBookIterator implements Iterator<Book>, AutoCloseable {
+        private final RecordCursor cursor;
+        private final Predicate<? super BookRecord> filter;
+        private boolean ready;
+        
+        DelimitedBookIterator(RecordCursor cursor, Predicate<? super BookRecord> filter) {
+            this.cursor = cursor;
+            this.filter = filter;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (!ready && cursor.advance()) {
+                ready = filter == null || filter.test(cursor);
+            }
+            return ready;
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            ready = false;
+            return cursor.toBook();
+        }
+        
+        /**
+         * 跳过的记录只定位字段边界，不解码
+         */
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            while (skipped < n && hasNext()) {
+                ready = false;
+                skipped++;
+            }
+            return skipped;
+        }
+        
+        /**
+         * 关闭文件，之后hasNext()返回false
+         */
+        @Override
+        public void close() {
+            ready = false;
+            cursor.close();
+        }
+    }
+    
+    /**
+     * 记录游标
+     * 缓冲区处于读模式：position为下一条记录的起点，limit为已读入数据的末尾。
+     * 字段位置是缓冲区内的绝对偏移，在下一次advance()之前有效。
+     */
+    private static final class RecordCursor implements BookRecord, AutoCloseable {
+        private final byte delimiter;
+        private FileChannel channel;
+        private final ByteBuffer buffer;
+        private boolean endOfFile;
+        private boolean skipHeader;
+        
+        private int fieldCount;
+        private final int[] starts = new int[2];
+        private final int[] ends = new int[2];
+        private final boolean[] escaped = new boolean[2];
+        private boolean blank;
+        
+        private byte[] scratch;
+        private String encodedAuthor;
+        private byte[] encodedAuthorBytes;
+        
+        RecordCursor(DelimitedBookFile file) {
+            this.delimiter = file.delimiter;
+            this.skipHeader = file.hasHeader;
+            try {
+                this.channel = FileChannel.open(file.path, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+            this.buffer.flip();
+            this.scratch = new byte[64];
+        }
+        
+        /**
+         * 移动到下一条记录，只定位字段边界
+         * 
+         * @return 如果还有记录返回true；到达文件末尾时关闭文件并返回false
+         */
+        boolean advance() {
+            while (channel != null) {
+                if (!buffer.hasRemaining()) {
+                    if (endOfFile) {
+                        close();
+                        return false;
+                    }
+                    refill();
+                    continue;
+                }
+                int end = scan(buffer.position(), buffer.limit());
+                if (end < 0) {
+                    if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                        throw failure("记录超过缓冲区大小" + CHUNK_SIZE + "字节");
+                    }
+                    refill();
+                    continue;
+                }
+                buffer.position(end);
+                if (blank) {
+                    continue;
+                }
+                if (fieldCount < 2) {
+                    throw failure("缺少作者字段");
+                }
+                if (skipHeader) {
+                    skipHeader = false;
+                    continue;
+                }
+                return true;
+            }
+            return false;
+        }
+        
+        /**
+         * 从from开始解析一条记录
+         * 
+         * @return 下一条记录的起点；缓冲区中的数据不足一条完整记录时返回-1
+         */
+        private int scan(int from, int limit) {
+            int p = from;
+            fieldCount = 0;
+            while (true) {
+                int start;
+                int end;
+                boolean quoted = p < limit && buffer.get(p) == QUOTE;
+                boolean hasEscape = false;
+                if (quoted) {
+                    start = ++p;
+                    while (true) {
+                        if (p >= limit) {
+                            if (endOfFile) {
+                                throw failure("引号没有闭合");
+                            }
+                            return -1;
+                        }
+                        if (buffer.get(p) == QUOTE) {
+                            if (p + 1 >= limit && !endOfFile) {
+                                return -1;
+                            }
+                            if (p + 1 < limit && buffer.get(p + 1) == QUOTE) {
+                                hasEscape = true;
+                                p += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        p++;
+                    }
+                    end = p++;
+                } else {
+                    start = p;
+                    end = -1;
+                }
+                // 定位到分隔符、换行或数据末尾；引号字段闭合后到分隔符之间的内容被忽略
+                while (p < limit) {
+                    byte b = buffer.get(p);
+                    if (b == delimiter || b == NEWLINE) {
+                        break;
+                    }
+                    p++;
+                }
+                if (p >= limit && !endOfFile) {
+                    return -1;
+                }
+                if (!quoted) {
+                    end = p;
+                    if (end > start && buffer.get(end - 1) == CARRIAGE_RETURN && (p >= limit || buffer.get(p) == NEWLINE)) {
+                        end--;
+                    }
+                }
+                if (fieldCount < 2) {
+                    starts[fieldCount] = start;
+                    ends[fieldCount] = end;
+                    escaped[fieldCount] = hasEscape;
+                }
+                fieldCount++;
+                if (p >= limit || buffer.get(p) == NEWLINE) {
+                    blank = fieldCount == 1 && !quoted && end == start;
+                    return p >= limit ? p : p + 1;
+                }
+                p++;
+            }
+        }
+        
+        private void refill() {
+            buffer.compact();
+            try {
+                if (channel.read(buffer) < 0) {
+                    endOfFile = true;
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            } finally {
+                buffer.flip();
+            }
+        }
+        
+        private UncheckedIOException failure(String message) {
+            close();
+            return new UncheckedIOException(new IOException("书目文件格式错误: " + message));
+        }
+        
+        @Override
+        public String getTitle() {
+            return decode(0);
+        }
+        
+        @Override
+        public String getAuthor() {
+            return decode(1);
+        }
+        
+        /**
+         * 直接比较UTF-8字节，同一个作者连续比较时只编码一次
+         */
+        @Override
+        public boolean authorEquals(String author) {
+            if (escaped[1]) {
+                return getAuthor().equals(author);
+            }
+            if (!author.equals(encodedAuthor)) {
+                encodedAuthor = author;
+                encodedAuthorBytes = author.getBytes(StandardCharsets.UTF_8);
+            }
+            byte[] expected = encodedAuthorBytes;
+            int offset = starts[1];
+            if (expected.length != ends[1] - offset) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (buffer.get(offset + i) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private String decode(int field) {
+            int offset = starts[field];
+            int length = ends[field] - offset;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(offset, scratch, 0, length);
+            if (escaped[field]) {
+                // 两个连续的双引号还原为一个
+                int write = 0;
+                for (int read = 0; read < length; read++) {
+                    scratch[write++] = scratch[read];
+                    if (scratch[read] == QUOTE) {
+                        read++;
+                    }
+                }
+                length = write;
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    channel = null;
+                    buffer.clear().flip();
+                }
+            }
+        }
+    }
+}
@@ -2,24 +2,40 @@ package com.dawn.patterns.behavioral.iterator.examples;
 
 import com.dawn.patterns.behavioral.iterator.core.Aggregate;
 import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.IteratorPool;
+import com.dawn.patterns.behavioral.iterator.core.ResettableIterator;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * 基于链表的书籍集合实现
  * 展示不同数据结构的统一遍历接口
  * 
+ * 采用"展开链表"（unrolled linked list）布局：每个节点保存一小段连续的书籍，
+ * 并维护尾指针，追加为O(1)，遍历时按节点内数组顺序访问，缓存局部性更好。
+ * 
  * @author Dawn
  * @version 1.0.0
  */
 public class LinkedBookCollection implements Aggregate<Book> {
     
     private Node head;
+    private Node tail;
     private int size;
+    private int modCount;
+    
+    /**
+     * 线程本地的迭代器池，迭代器可重新绑定到任意LinkedBookCollection
+     */
+    private static final IteratorPool<LinkedBookCollection, LinkedBookIterator> ITERATOR_POOL = new IteratorPool<>(LinkedBookIterator::new);
     
     /**
      * 构造函数
      */
     public LinkedBookCollection() {
         this.head = null;
+        this.tail = null;
         this.size = 0;
     }
     
@@ -31,18 +47,16 @@ public class LinkedBookCollection implements Aggregate<Book> {
     public void addBook(Book book) {
         if (book == null) return;
         
-        Node newNode = new Node(book);
-        if (head == null) {
-            head = newNode;
-        } else {
-            // 添加到链表尾部
-            Node current = head;
-            while (current.next != null) {
-                current = current.next;
-            }
-            current.next = newNode;
+        if (tail == null) {
+            head = tail = new Node();
+        } else if (tail.count == Node.CAPACITY) {
+            // 尾节点已满，追加新节点
+            tail.next = new Node();
+            tail = tail.next;
         }
+        tail.books[tail.count++] = book;
         size++;
+        modCount++;
     }
     
     /**
@@ -73,6 +87,41 @@ public class LinkedBookCollection implements Aggregate<Book> {
         return new LinkedBookIterator(this);
     }
     
+    /**
+     * 从当前线程的迭代器池中取出迭代器
+     * 与createIterator()的遍历行为相同，用完后通过{@link #releaseIterator(Iterator)}归还，
+     * 稳定状态下反复扫描不再分配迭代器；归还后不能继续使用
+     * 
+     * @return 从第一本书开始的迭代器
+     */
+    public Iterator<Book> acquireIterator() {
+        return ITERATOR_POOL.acquire(this);
+    }
+    
+    /**
+     * 把acquireIterator()取出的迭代器归还给当前线程的迭代器池
+     * 其他来源的迭代器会被忽略
+     * 
+     * @param iterator 不再使用的迭代器
+     */
+    public void releaseIterator(Iterator<Book> iterator) {
+        if (iterator instanceof LinkedBookIterator) {
+            ITERATOR_POOL.release((LinkedBookIterator) iterator);
+        }
+    }
+    
+    /**
+     * 检查集合在迭代器创建之后是否被修改过
+     * 
+     * @param expectedModCount 迭代器创建时的修改次数
+     * @throws ConcurrentModificationException 如果集合已被修改
+     */
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("集合在遍历过程中被修改");
+        }
+    }
+    
     @Override
     public String toString() {
         return String.format("LinkedBookCollection{size=%d}", size);
@@ -80,40 +129,153 @@ public class LinkedBookCollection implements Aggregate<Book> {
     
     /**
      * 链表节点
+     * 每个节点最多保存CAPACITY本书籍，除尾节点外都是满的
      */
     static class Node {
-        Book book;
+        static final int CAPACITY = 16;
+        
+        final Book[] books;
+        int count;
         Node next;
         
-        Node(Book book) {
-            this.book = book;
+        Node() {
+            this.books = new Book[CAPACITY];
+            this.count = 0;
             this.next = null;
         }
     }
     
     /**
      * 链表书籍迭代器
+     * 并发修改在节点边界检查（每CAPACITY个元素一次），以及遍历到末尾时检查一次
      */
-    private static class LinkedBookIterator implements Iterator<Book> {
+    private static class LinkedBookIterator implements ResettableIterator<Book, LinkedBookCollection> {
+        private LinkedBookCollection collection;
+        private int expectedModCount;
         private Node current;
+        private int indexInNode;
         
         public LinkedBookIterator(LinkedBookCollection collection) {
+            reset(collection);
+        }
+        
+        @Override
+        public void reset(LinkedBookCollection collection) {
+            this.collection = collection;
+            this.expectedModCount = collection.modCount;
             this.current = collection.getHead();
+            this.indexInNode = 0;
         }
         
         @Override
         public boolean hasNext() {
-            return current != null;
+            if (current != null && (indexInNode < current.count || current.next != null)) {
+                return true;
+            }
+            collection.checkForComodification(expectedModCount);
+            return false;
         }
         
+        /**
+         * 获取下一本书籍
+         * 当前节点内还有书籍时只做一次比较；换节点与并发修改检查放在静态的慢路径中，
+         * 慢路径不接收迭代器本身，迭代器不会因此逃逸，JIT可以把它的字段留在寄存器里
+         * 
+         * @return 下一本书籍
+         */
         @Override
         public Book next() {
-            if (!hasNext()) {
+            Node node = current;
+            int index = indexInNode;
+            if (node == null || index == node.count) {
+                node = nextNode(collection, expectedModCount, node);
+                current = node;
+                index = 0;
+            }
+            indexInNode = index + 1;
+            return node.books[index];
+        }
+        
+        /**
+         * 当前节点读完时检查并发修改并返回后继节点
+         * 
+         * @throws IndexOutOfBoundsException 如果没有后继节点
+         */
+        private static Node nextNode(LinkedBookCollection collection, int expectedModCount, Node node) {
+            collection.checkForComodification(expectedModCount);
+            if (node == null || node.next == null) {
                 throw new IndexOutOfBoundsException("没有更多元素");
             }
-            Book book = current.book;
-            current = current.next;
-            return book;
+            return node.next;
+        }
+        
+        /**
+         * 跳过接下来的n本书籍
+         * 整个节点一次跳过，只在最后一个节点内按位置定位
+         * 
+         * @param n 要跳过的数量
+         * @return 实际跳过的数量
+         */
+        @Override
+        public long skip(long n) {
+            collection.checkForComodification(expectedModCount);
+            long skipped = 0;
+            while (skipped < n && hasNext()) {
+                advanceIfNodeExhausted();
+                int step = (int) Math.min(n - skipped, current.count - indexInNode);
+                indexInNode += step;
+                skipped += step;
+            }
+            return skipped;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            Objects.requireNonNull(action);
+            Node node = current;
+            int index = indexInNode;
+            while (node != null) {
+                Book[] books = node.books;
+                int count = node.count;
+                while (index < count) {
+                    action.accept(books[index++]);
+                }
+                collection.checkForComodification(expectedModCount);
+                if (node.next == null) {
+                    break;
+                }
+                node = node.next;
+                index = 0;
+            }
+            current = node;
+            indexInNode = index;
+            collection.checkForComodification(expectedModCount);
+        }
+        
+        @Override
+        public int nextBatch(Book[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            collection.checkForComodification(expectedModCount);
+            int copied = 0;
+            while (copied < len && hasNext()) {
+                advanceIfNodeExhausted();
+                int count = Math.min(len - copied, current.count - indexInNode);
+                System.arraycopy(current.books, indexInNode, dst, off + copied, count);
+                indexInNode += count;
+                copied += count;
+            }
+            return copied;
+        }
+        
+        /**
+         * 当前节点读完且存在后继节点时移动到下一个节点，同时检查并发修改
+         */
+        private void advanceIfNodeExhausted() {
+            if (indexInNode == current.count && current.next != null) {
+                collection.checkForComodification(expectedModCount);
+                current = current.next;
+                indexInNode = 0;
+            }
         }
     }
 }
@@ -0,0 +1,332 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 基于内存映射文件的书籍存储
+ * 书籍以紧凑的二进制记录保存在文件中，打开时只映射文件、读取文件头，
+ * 遍历时直接从映射区解码，数据不占用Java堆，可以遍历比堆更大的书目。
+ * 
+ * 文件格式（大端序）：
+ * <pre>
+ * 文件头: int 魔数 | int 版本 | long 记录数
+ * 记录:   u16 书名字节数 | 书名UTF-8 | u16 作者字节数 | 作者UTF-8
+ * </pre>
+ * 
+ * 单个MappedByteBuffer最大2GB，因此文件按WINDOW_SIZE分成多个映射窗口，
+ * 每个窗口额外多映射一条最大记录的长度，保证起始于窗口内的记录总能完整读取。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class MappedBookStore implements Aggregate<Book>, Closeable {
+    
+    static final int MAGIC = 0x424B4D50;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int MAX_FIELD_BYTES = 0xFFFF;
+    
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int MAX_RECORD_SIZE = 2 * (2 + MAX_FIELD_BYTES);
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] windows;
+    private final long fileSize;
+    private final long recordCount;
+    
+    private MappedBookStore(Path path, FileChannel channel, MappedByteBuffer[] windows,
+                            long fileSize, long recordCount) {
+        this.path = path;
+        this.channel = channel;
+        this.windows = windows;
+        this.fileSize = fileSize;
+        this.recordCount = recordCount;
+    }
+    
+    /**
+     * 打开已有的书籍存储文件
+     * 
+     * @param path 文件路径
+     * @return 书籍存储
+     * @throws IOException 如果文件无法读取或格式不正确
+     */
+    public static MappedBookStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("不是有效的书籍存储文件: " + path);
+            }
+            int windowCount = (int) ((fileSize - 1) / WINDOW_SIZE) + 1;
+            MappedByteBuffer[] windows = new MappedByteBuffer[windowCount];
+            for (int i = 0; i < windowCount; i++) {
+                long start = i * WINDOW_SIZE;
+                long length = Math.min(WINDOW_SIZE + MAX_RECORD_SIZE, fileSize - start);
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            
+            ByteBuffer header = windows[0];
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("不是有效的书籍存储文件: " + path);
+            }
+            // 每条记录至少4个字节（两个u16长度），记录数不可能超过剩余字节数的四分之一
+            long recordCount = header.getLong(8);
+            if (recordCount < 0 || recordCount > (fileSize - HEADER_SIZE) / 4) {
+                throw new IOException("存储文件头的记录数与文件大小不符: " + recordCount);
+            }
+            return new MappedBookStore(path, channel, windows, fileSize, recordCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 把聚合中的全部书籍写入存储文件，已有文件会被覆盖
+     * 
+     * @param path 文件路径
+     * @param books 要写入的书籍
+     * @return 写入的记录数
+     * @throws IOException 如果写入失败
+     * @throws IllegalArgumentException 如果书籍、书名或作者为null，或书名、作者的UTF-8编码超过65535字节
+     */
+    public static long write(Path path, Aggregate<Book> books) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE + MAX_RECORD_SIZE);
+            // 先占位写入文件头，记录数在最后回填
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(0);
+            
+            long count = 0;
+            Iterator<Book> iterator = books.createIterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                // 存储格式不能表示null字段
+                if (book == null || book.getTitle() == null || book.getAuthor() == null) {
+                    throw new IllegalArgumentException("存储文件不支持为null的书籍、书名或作者: " + book);
+                }
+                putField(buffer, book.getTitle());
+                putField(buffer, book.getAuthor());
+                count++;
+                if (buffer.position() >= WRITE_BUFFER_SIZE) {
+                    flush(channel, buffer);
+                }
+            }
+            flush(channel, buffer);
+            
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(count).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+            return count;
+        }
+    }
+    
+    private static void putField(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException("字段超过" + MAX_FIELD_BYTES + "字节: " + value.substring(0, 32) + "...");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+    
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    /**
+     * 获取记录数量
+     * 
+     * @return 记录数量
+     */
+    public long getSize() {
+        return recordCount;
+    }
+    
+    /**
+     * 获取文件路径
+     * 
+     * @return 文件路径
+     */
+    public Path getPath() {
+        return path;
+    }
+    
+    /**
+     * 创建迭代器，每条记录解码为新的Book对象
+     * 
+     * @return 用于遍历存储文件的迭代器
+     */
+    @Override
+    public Iterator<Book> createIterator() {
+        return new MappedBookIterator(this);
+    }
+    
+    /**
+     * 使用同一个可复用的记录游标遍历全部记录
+     * 字段只在被访问时才解码，只读取作者的消费者不会为书名创建字符串
+     * 
+     * @param action 对每条记录执行的操作，不要在回调之外保留记录对象
+     */
+    public void forEachRecord(Consumer<? super BookRecord> action) {
+        Objects.requireNonNull(action);
+        RecordCursor cursor = new RecordCursor(this);
+        while (cursor.hasNext()) {
+            cursor.advance();
+            action.accept(cursor);
+        }
+    }
+    
+    /**
+     * 关闭文件通道，映射区在不再被引用后由GC释放
+     * 
+     * @throws IOException 如果关闭失败
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MappedBookStore{path=%s, size=%d, bytes=%d}", path, recordCount, fileSize);
+    }
+    
+    /**
+     * 记录游标
+     * 维护当前记录在文件中的位置，字段按需从映射区解码
+     */
+    private static class RecordCursor implements BookRecord {
+        private final MappedBookStore store;
+        private long nextPosition;
+        private long remaining;
+        
+        private ByteBuffer window;
+        private int titleOffset;
+        private int titleLength;
+        private int authorOffset;
+        private int authorLength;
+        private byte[] scratch;
+        private String encodedAuthor;
+        private byte[] encodedAuthorBytes;
+        
+        RecordCursor(MappedBookStore store) {
+            this.store = store;
+            this.nextPosition = HEADER_SIZE;
+            this.remaining = store.recordCount;
+            this.scratch = new byte[64];
+        }
+        
+        boolean hasNext() {
+            return remaining > 0;
+        }
+        
+        /**
+         * 移动到下一条记录，只读取两个长度字段
+         */
+        void advance() {
+            int windowIndex = (int) (nextPosition / WINDOW_SIZE);
+            window = store.windows[windowIndex];
+            int offset = (int) (nextPosition - windowIndex * WINDOW_SIZE);
+            
+            titleLength = Short.toUnsignedInt(window.getShort(offset));
+            titleOffset = offset + 2;
+            authorLength = Short.toUnsignedInt(window.getShort(titleOffset + titleLength));
+            authorOffset = titleOffset + titleLength + 2;
+            
+            nextPosition += 4L + titleLength + authorLength;
+            remaining--;
+        }
+        
+        @Override
+        public String getTitle() {
+            return decode(titleOffset, titleLength);
+        }
+        
+        @Override
+        public String getAuthor() {
+            return decode(authorOffset, authorLength);
+        }
+        
+        /**
+         * 直接比较UTF-8字节，同一个作者连续比较时只编码一次
+         */
+        @Override
+        public boolean authorEquals(String author) {
+            if (!author.equals(encodedAuthor)) {
+                encodedAuthor = author;
+                encodedAuthorBytes = author.getBytes(StandardCharsets.UTF_8);
+            }
+            byte[] expected = encodedAuthorBytes;
+            if (expected.length != authorLength) {
+                return false;
+            }
+            for (int i = 0; i < authorLength; i++) {
+                if (window.get(authorOffset + i) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private String decode(int offset, int length) {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            window.get(offset, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * 映射文件书籍迭代器
+     */
+    private static class MappedBookIterator implements Iterator<Book> {
+        private final RecordCursor cursor;
+        
+        MappedBookIterator(MappedBookStore store) {
+            this.cursor = new RecordCursor(store);
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return cursor.hasNext();
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            cursor.advance();
+            return cursor.toBook();
+        }
+        
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            while (skipped < n && cursor.hasNext()) {
+                cursor.advance();
+                skipped++;
+            }
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.dawn.patterns.behavioral.iterator.examples;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import com.dawn.patterns.behavioral.iterator.core.RandomAccessAggregate;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 分段数组的书籍集合实现
+ * 书籍保存在多个固定大小的段（Book[]）中，段目录只保存各段的引用。
+ * 容量不足时只分配一个新段，已有的书籍从不复制，也不需要一整块连续的大数组；
+ * 目录扩容只复制段引用，长度约为书籍数量除以段大小。
+ * 
+ * 段大小为2的幂，第index本书位于第index >>> shift段的index &amp; mask位置，按位置访问仍是O(1)。
+ * 代价是每次按位置读取多一次目录访问，以及最后一段最多剩下一段的空闲容量。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class SegmentedBookCollection implements RandomAccessAggregate<Book> {
+    
+    /**
+     * 默认段大小：4096个引用，压缩指针下每段16KB，不会成为G1的大对象
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 12;
+    
+    private static final int INITIAL_DIRECTORY_SIZE = 4;
+    
+    private final int shift;
+    private final int mask;
+    private Book[][] segments;
+    private int segmentCount;
+    private int size;
+    private int modCount;
+    
+    /**
+     * 使用默认段大小的构造函数
+     */
+    public SegmentedBookCollection() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param segmentSize 段大小，必须是2的幂
+     */
+    public SegmentedBookCollection(int segmentSize) {
+        if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("段大小必须是2的幂: " + segmentSize);
+        }
+        this.shift = Integer.numberOfTrailingZeros(segmentSize);
+        this.mask = segmentSize - 1;
+        this.segments = new Book[INITIAL_DIRECTORY_SIZE][];
+    }
+    
+    /**
+     * 添加书籍
+     * 
+     * @param book 要添加的书籍
+     */
+    public void addBook(Book book) {
+        if (book == null) return;
+        
+        int segment = size >>> shift;
+        if (segment == segmentCount) {
+            allocateSegment();
+        }
+        segments[segment][size & mask] = book;
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * 批量添加迭代器中剩余的书籍
+     * 迭代器是能估计剩余数量的{@link SplittableIterator}时按估计值预先分配段
+     * 
+     * @param iterator 书籍来源
+     * @return 添加的书籍数量
+     */
+    public int addAll(Iterator<Book> iterator) {
+        long sizeHint = 0;
+        if (iterator instanceof SplittableIterator) {
+            long estimate = ((SplittableIterator<Book>) iterator).estimateSize();
+            if (estimate != SplittableIterator.UNKNOWN_SIZE) {
+                sizeHint = estimate;
+            }
+        }
+        return addAll(iterator, sizeHint);
+    }
+    
+    /**
+     * 批量添加迭代器中剩余的书籍
+     * 先按sizeHint分配段，再通过nextBatch直接写入当前段的空闲部分；null会被跳过，与addBook一致
+     * 
+     * @param iterator 书籍来源
+     * @param sizeHint 预计的书籍数量，不知道时传0
+     * @return 添加的书籍数量
+     */
+    public int addAll(Iterator<Book> iterator, long sizeHint) {
+        if (iterator == null) {
+            throw new IllegalArgumentException("迭代器不能为空");
+        }
+        if (sizeHint > 0) {
+            ensureCapacity((int) Math.min(size + sizeHint, Integer.MAX_VALUE));
+        }
+        // 先记一次修改，来源恰好是本集合的迭代器时抛出ConcurrentModificationException，而不是无限追加
+        modCount++;
+        int start = size;
+        while (iterator.hasNext()) {
+            int segment = size >>> shift;
+            if (segment == segmentCount) {
+                allocateSegment();
+            }
+            Book[] target = segments[segment];
+            int offset = size & mask;
+            int end = offset + iterator.nextBatch(target, offset, target.length - offset);
+            // 去掉批次中的null
+            int write = offset;
+            for (int i = offset; i < end; i++) {
+                if (target[i] != null) {
+                    target[write++] = target[i];
+                }
+            }
+            Arrays.fill(target, write, end, null);
+            size += write - offset;
+        }
+        return size - start;
+    }
+    
+    /**
+     * 根据索引获取书籍
+     * 
+     * @param index 索引
+     * @return 书籍
+     */
+    public Book getBook(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("索引越界: " + index);
+        }
+        return segments[index >>> shift][index & mask];
+    }
+    
+    /**
+     * 预先分配段，保证至少能容纳minCapacity本书籍
+     * 
+     * @param minCapacity 最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        while (getCapacity() < minCapacity) {
+            allocateSegment();
+        }
+    }
+    
+    /**
+     * 释放没有书籍的段，并把段目录缩小到实际使用的段数
+     * 最后一段即使只用了一部分也保留整段
+     */
+    public void trimToSize() {
+        int used = (int) (((long) size + mask) >>> shift);
+        if (used < segmentCount) {
+            Arrays.fill(segments, used, segmentCount, null);
+            segmentCount = used;
+        }
+        if (segmentCount < segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(segmentCount, 1));
+        }
+    }
+    
+    /**
+     * 获取当前容量
+     * 
+     * @return 已分配的段能容纳的书籍数量
+     */
+    public int getCapacity() {
+        return (int) Math.min((long) segmentCount << shift, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * 获取段大小
+     * 
+     * @return 每段能容纳的书籍数量
+     */
+    public int getSegmentSize() {
+        return mask + 1;
+    }
+    
+    private void allocateSegment() {
+        if (((long) segmentCount << shift) >= Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("集合容量超出上限");
+        }
+        if (segmentCount == segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        segments[segmentCount++] = new Book[mask + 1];
+    }
+    
+    /**
+     * 获取书籍数量
+     * 
+     * @return 书籍数量
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * 根据索引获取书籍
+     * 
+     * @param index 索引
+     * @return 书籍
+     */
+    @Override
+    public Book getElement(int index) {
+        return getBook(index);
+    }
+    
+    /**
+     * 创建迭代器
+     * 
+     * @return 按段顺序遍历的迭代器
+     */
+    @Override
+    public Iterator<Book> createIterator() {
+        return new SegmentedBookIterator(this, segments, 0, size, modCount);
+    }
+    
+    /**
+     * 创建可拆分迭代器
+     * 按下标区间对半拆分，拆分点尽量落在段边界上，拆分本身不复制任何元素
+     * 
+     * @return 覆盖当前全部书籍的可拆分迭代器
+     */
+    @Override
+    public SplittableIterator<Book> createSplittableIterator() {
+        return new SegmentedBookIterator(this, segments, 0, size, modCount);
+    }
+    
+    /**
+     * 检查集合在迭代器创建之后是否被修改过
+     * 
+     * @param expectedModCount 迭代器创建时的修改次数
+     * @throws ConcurrentModificationException 如果集合已被修改
+     */
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("集合在遍历过程中被修改");
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SegmentedBookCollection{size=%d, segments=%d, segmentSize=%d}",
+                size, segmentCount, mask + 1);
+    }
+    
+    /**
+     * 分段书籍迭代器，负责下标区间[currentIndex, fence)
+     * 持有创建时的段目录，目录扩容后的新数组不影响正在进行的遍历；
+     * 并发修改在每进入一个新段、每次skip/nextBatch、forEachRemaining结束时以及遍历到末尾时检查
+     */
+    private static final class SegmentedBookIterator implements SplittableIterator<Book> {
+        private final SegmentedBookCollection collection;
+        private final Book[][] segments;
+        private final int expectedModCount;
+        private int currentIndex;
+        private final int fence;
+        private final int shift;
+        private final int mask;
+        private Book[] segment;
+        
+        SegmentedBookIterator(SegmentedBookCollection collection, Book[][] segments,
+                              int origin, int fence, int expectedModCount) {
+            this.collection = collection;
+            this.segments = segments;
+            this.expectedModCount = expectedModCount;
+            this.currentIndex = origin;
+            this.fence = fence;
+            this.shift = collection.shift;
+            this.mask = collection.mask;
+            positionSegment();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (currentIndex < fence) {
+                return true;
+            }
+            collection.checkForComodification(expectedModCount);
+            return false;
+        }
+        
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new IndexOutOfBoundsException("没有更多元素");
+            }
+            int index = currentIndex++;
+            int offset = index & mask;
+            if (offset == 0) {
+                collection.checkForComodification(expectedModCount);
+                segment = segments[index >>> shift];
+            }
+            return segment[offset];
+        }
+        
+        /**
+         * 定位到currentIndex所在的段；位于段起点时交给next()在读取时加载
+         */
+        private void positionSegment() {
+            if ((currentIndex & mask) != 0 && currentIndex < fence) {
+                segment = segments[currentIndex >>> shift];
+            }
+        }
+        
+        @Override
+        public long skip(long n) {
+            collection.checkForComodification(expectedModCount);
+            int step = (int) Math.max(Math.min(n, fence - currentIndex), 0);
+            currentIndex += step;
+            positionSegment();
+            return step;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super Book> action) {
+            Objects.requireNonNull(action);
+            int index = currentIndex;
+            while (index < fence) {
+                Book[] books = segments[index >>> shift];
+                int end = Math.min(fence - (index & ~mask), books.length);
+                for (int i = index & mask; i < end; i++) {
+                    action.accept(books[i]);
+                }
+                index = (index & ~mask) + end;
+            }
+            currentIndex = fence;
+            collection.checkForComodification(expectedModCount);
+        }
+        
+        @Override
+        public int nextBatch(Book[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            collection.checkForComodification(expectedModCount);
+            int count = Math.min(len, fence - currentIndex);
+            if (count <= 0) {
+                return 0;
+            }
+            int copied = 0;
+            while (copied < count) {
+                int index = currentIndex + copied;
+                Book[] books = segments[index >>> shift];
+                int offset = index & mask;
+                int chunk = Math.min(count - copied, books.length - offset);
+                System.arraycopy(books, offset, dst, off + copied, chunk);
+                copied += chunk;
+            }
+            currentIndex += count;
+            positionSegment();
+            return count;
+        }
+        
+        @Override
+        public SplittableIterator<Book> trySplit() {
+            int mid = (currentIndex + fence) >>> 1;
+            int aligned = mid & ~mask;
+            if (aligned > currentIndex) {
+                mid = aligned;
+            }
+            if (mid <= currentIndex) {
+                return null;
+            }
+            SegmentedBookIterator prefix = new SegmentedBookIterator(collection, segments, currentIndex, mid, expectedModCount);
+            currentIndex = mid;
+            positionSegment();
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return fence - currentIndex;
+        }
+    }
+}
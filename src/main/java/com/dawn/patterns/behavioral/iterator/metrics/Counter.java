@@ -0,0 +1,24 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+/**
+ * 计数器
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface Counter {
+    
+    /**
+     * 增加计数
+     * 
+     * @param amount 增加的数量
+     */
+    void add(long amount);
+    
+    /**
+     * 获取当前计数
+     * 
+     * @return 当前计数
+     */
+    long get();
+}
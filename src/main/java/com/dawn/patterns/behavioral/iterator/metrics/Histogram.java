@@ -0,0 +1,39 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+/**
+ * 数值分布（例如遍历耗时）
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface Histogram {
+    
+    /**
+     * 记录一个非负数值
+     * 
+     * @param value 数值，负数按0记录
+     */
+    void record(long value);
+    
+    /**
+     * 获取记录的数值个数
+     * 
+     * @return 记录次数
+     */
+    long getCount();
+    
+    /**
+     * 获取指定百分位的近似值
+     * 
+     * @param percentile 百分位，范围[0, 100]
+     * @return 近似值，没有记录时返回0
+     */
+    long getValueAtPercentile(double percentile);
+    
+    /**
+     * 获取记录过的最大值
+     * 
+     * @return 最大值，没有记录时返回0
+     */
+    long getMax();
+}
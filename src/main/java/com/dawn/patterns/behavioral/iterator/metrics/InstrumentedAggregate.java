@@ -0,0 +1,50 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.SplittableIterator;
+import java.util.Objects;
+
+/**
+ * 统计装饰聚合
+ * 每次createIterator()返回一个{@link InstrumentedIterator}，指标对象在构造时一次性取出。
+ * 直接构造总是统计；需要由系统属性控制开关时使用{@link IteratorMetrics#instrument(Aggregate, String)}。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class InstrumentedAggregate<T> implements Aggregate<T> {
+    
+    private final Aggregate<T> source;
+    private final TraversalMetrics metrics;
+    
+    /**
+     * 构造函数
+     * 
+     * @param source 原始聚合
+     * @param name 指标名称前缀
+     * @param registry 指标注册表
+     */
+    public InstrumentedAggregate(Aggregate<T> source, String name, MetricsRegistry registry) {
+        this.source = Objects.requireNonNull(source);
+        this.metrics = new TraversalMetrics(Objects.requireNonNull(name), registry);
+    }
+    
+    @Override
+    public InstrumentedIterator<T> createIterator() {
+        return new InstrumentedIterator<>(source.createIterator(), metrics);
+    }
+    
+    /**
+     * 并行遍历直接使用原始聚合的拆分方式，不做统计
+     */
+    @Override
+    public SplittableIterator<T> createSplittableIterator() {
+        return source.createSplittableIterator();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("InstrumentedAggregate{name='%s', source=%s}", metrics.name, source);
+    }
+}
@@ -0,0 +1,158 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 统计装饰迭代器
+ * 元素数在普通字段中累加，遍历结束（hasNext()返回false、forEachRemaining结束、nextBatch返回0）
+ * 或关闭时才一次性写入注册表并提交JFR事件，遍历过程中不访问任何共享状态。
+ * 没有遍历完就放弃时应调用{@link #close()}，否则这次遍历不会被记录。
+ * 
+ * @param <T> 元素类型
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class InstrumentedIterator<T> implements Iterator<T>, AutoCloseable {
+    
+    private final Iterator<T> delegate;
+    private final TraversalMetrics metrics;
+    private final TraversalEvent event;
+    private final long createdNanos;
+    private Thread owner;
+    private long startNanos;
+    private long startAllocatedBytes;
+    private long emitted;
+    private boolean started;
+    private boolean finished;
+    
+    InstrumentedIterator(Iterator<T> delegate, TraversalMetrics metrics) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.metrics = metrics;
+        this.event = new TraversalEvent();
+        this.event.begin();
+        this.createdNanos = System.nanoTime();
+    }
+    
+    /**
+     * 构造函数，立即开始统计
+     * 
+     * @param delegate 原始迭代器
+     * @param name 指标名称前缀
+     * @param registry 指标注册表
+     */
+    public InstrumentedIterator(Iterator<T> delegate, String name, MetricsRegistry registry) {
+        this(delegate, new TraversalMetrics(name, registry));
+    }
+    
+    /**
+     * 第一次访问时记录开始时间和当前线程已分配的字节数
+     */
+    private void start() {
+        started = true;
+        owner = Thread.currentThread();
+        startAllocatedBytes = IteratorMetrics.currentThreadAllocatedBytes();
+        startNanos = System.nanoTime();
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            start();
+        }
+        if (delegate.hasNext()) {
+            return true;
+        }
+        finish(true);
+        return false;
+    }
+    
+    @Override
+    public T next() {
+        if (!started) {
+            start();
+        }
+        T element = delegate.next();
+        emitted++;
+        return element;
+    }
+    
+    @Override
+    public long skip(long n) {
+        if (!started) {
+            start();
+        }
+        return delegate.skip(n);
+    }
+    
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (!started) {
+            start();
+        }
+        long[] count = new long[1];
+        delegate.forEachRemaining(element -> {
+            count[0]++;
+            action.accept(element);
+        });
+        emitted += count[0];
+        finish(true);
+    }
+    
+    @Override
+    public int nextBatch(T[] dst, int off, int len) {
+        if (!started) {
+            start();
+        }
+        int count = delegate.nextBatch(dst, off, len);
+        emitted += count;
+        if (count == 0 && len > 0) {
+            finish(true);
+        }
+        return count;
+    }
+    
+    /**
+     * 结束统计，未遍历完时记为放弃
+     */
+    @Override
+    public void close() {
+        finish(false);
+    }
+    
+    private void finish(boolean completed) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        long now = System.nanoTime();
+        metrics.lifetimeNanos.record(now - createdNanos);
+        metrics.elements.add(emitted);
+        if (completed) {
+            metrics.traversals.add(1);
+            metrics.traversalNanos.record(now - startNanos);
+        } else {
+            metrics.abandoned.add(1);
+        }
+        long allocated = -1;
+        if (started && owner == Thread.currentThread() && startAllocatedBytes >= 0) {
+            allocated = IteratorMetrics.currentThreadAllocatedBytes() - startAllocatedBytes;
+            metrics.allocatedBytes.record(allocated);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.name = metrics.name;
+            event.elements = emitted;
+            event.completed = completed;
+            event.allocatedBytes = allocated;
+            event.commit();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("InstrumentedIterator{name='%s', emitted=%d, finished=%s}", metrics.name, emitted, finished);
+    }
+}
@@ -0,0 +1,156 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+import com.dawn.patterns.behavioral.iterator.core.Aggregate;
+import com.dawn.patterns.behavioral.iterator.core.Iterator;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * 迭代器统计入口
+ * 通过系统属性{@value #ENABLED_PROPERTY}=true开启。开关在类加载时读取为常量，
+ * 关闭时instrument系列方法直接返回传入的对象，不包装、不计数，调用方的遍历代码与未统计时完全相同，
+ * 因此可以一直保留在生产环境的热点路径上。
+ * 
+ * 统计的指标（name为调用方给出的名称）：
+ * <ul>
+ *     <li>name.elements / name.traversals / name.abandoned: 返回的元素数、完整遍历次数、未遍历完就关闭的次数</li>
+ *     <li>name.traversal.nanos: 从第一次访问到遍历结束的耗时分布</li>
+ *     <li>name.lifetime.nanos: 从创建迭代器到遍历结束或关闭的耗时分布</li>
+ *     <li>name.allocated.bytes: 遍历期间当前线程分配的字节数分布（JVM支持时）</li>
+ *     <li>name.accepted / name.rejected: 过滤条件通过和淘汰的元素数</li>
+ * </ul>
+ * 每次遍历结束时同时提交一个JFR事件com.dawn.iterator.Traversal。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class IteratorMetrics {
+    
+    /**
+     * 开启统计的系统属性
+     */
+    public static final String ENABLED_PROPERTY = "iterator.metrics.enabled";
+    
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    
+    private static volatile MetricsRegistry registry = new SimpleMetricsRegistry();
+    
+    private IteratorMetrics() {
+    }
+    
+    /**
+     * 统计是否已开启
+     * 
+     * @return 如果启动时设置了{@value #ENABLED_PROPERTY}=true返回true
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+    
+    /**
+     * 获取当前的指标注册表
+     * 
+     * @return 指标注册表
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * 替换指标注册表，只影响之后instrument的对象
+     * 
+     * @param newRegistry 新的指标注册表
+     */
+    public static void setRegistry(MetricsRegistry newRegistry) {
+        registry = Objects.requireNonNull(newRegistry);
+    }
+    
+    /**
+     * 统计聚合创建的每个迭代器
+     * 
+     * @param aggregate 原始聚合
+     * @param name 指标名称前缀
+     * @param <T> 元素类型
+     * @return 统计关闭时返回原始聚合本身
+     */
+    public static <T> Aggregate<T> instrument(Aggregate<T> aggregate, String name) {
+        return ENABLED ? new InstrumentedAggregate<>(aggregate, name, registry) : aggregate;
+    }
+    
+    /**
+     * 统计单个迭代器
+     * 
+     * @param iterator 原始迭代器
+     * @param name 指标名称前缀
+     * @param <T> 元素类型
+     * @return 统计关闭时返回原始迭代器本身
+     */
+    public static <T> Iterator<T> instrumentIterator(Iterator<T> iterator, String name) {
+        return ENABLED ? new InstrumentedIterator<>(iterator, new TraversalMetrics(name, registry)) : iterator;
+    }
+    
+    /**
+     * 统计过滤条件通过和淘汰的元素数，可用于FilterIterator和IteratorPipeline
+     * 
+     * @param filter 原始过滤条件
+     * @param name 指标名称前缀
+     * @param <T> 元素类型
+     * @return 统计关闭时返回原始过滤条件本身
+     */
+    public static <T> Predicate<T> countingFilter(Predicate<T> filter, String name) {
+        return ENABLED ? countingFilter(filter, name, registry) : filter;
+    }
+    
+    /**
+     * 总是统计过滤条件通过和淘汰的元素数，不受开关控制
+     *
+     * @param filter 原始过滤条件
+     * @param name 指标名称前缀
+     * @param registry 指标注册表
+     * @param <T> 元素类型
+     * @return 计数的过滤条件
+     */
+    public static <T> Predicate<T> countingFilter(Predicate<T> filter, String name, MetricsRegistry registry) {
+        Objects.requireNonNull(filter);
+        Counter accepted = registry.counter(name + ".accepted");
+        Counter rejected = registry.counter(name + ".rejected");
+        return element -> {
+            if (filter.test(element)) {
+                accepted.add(1);
+                return true;
+            }
+            rejected.add(1);
+            return false;
+        };
+    }
+    
+    /**
+     * 当前线程累计分配的字节数
+     * 
+     * @return 字节数，JVM不支持时返回-1
+     */
+    static long currentThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = ThreadBeanHolder.THREADS;
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+    
+    /**
+     * 延迟加载的ThreadMXBean
+     * 只有被统计的迭代器第一次读取分配字节数时才初始化，统计关闭时不会加载管理子系统
+     */
+    private static final class ThreadBeanHolder {
+        static final com.sun.management.ThreadMXBean THREADS = threadBean();
+        
+        private static com.sun.management.ThreadMXBean threadBean() {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对数-线性分桶的数值分布（HDR直方图的简化版）
+ * 每个2的幂区间再等分为32个子桶，任意数值的相对误差不超过1/32（约3%），
+ * 整个long范围只需要1888个桶，记录一次只是一次下标计算和一次原子加，不分配任何对象。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public final class LatencyHistogram implements Histogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+    
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount;
+    private final LongAdder totalSum;
+    private final LongAccumulator max;
+    
+    /**
+     * 构造函数
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.totalCount = new LongAdder();
+        this.totalSum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+    
+    @Override
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        counts.incrementAndGet(bucketIndex(v));
+        totalCount.increment();
+        totalSum.add(v);
+        max.accumulate(v);
+    }
+    
+    /**
+     * 小于32的数值各占一个桶；更大的数值按最高位所在的2的幂区间分组，组内取最高位之后的5位作为子桶
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return ((shift + 1) << SUB_BUCKET_BITS) + subBucket - SUB_BUCKET_COUNT;
+    }
+    
+    /**
+     * 桶内的最大值
+     */
+    static long highestValueInBucket(int index) {
+        int group = index >>> SUB_BUCKET_BITS;
+        if (group == 0) {
+            return index;
+        }
+        int shift = group - 1;
+        long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+    
+    @Override
+    public long getCount() {
+        return totalCount.sum();
+    }
+    
+    /**
+     * 获取平均值
+     * 
+     * @return 平均值，没有记录时返回0
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalSum.sum() / count;
+    }
+    
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+    
+    /**
+     * 获取指定百分位的近似值，返回所在桶的最大值（不超过实际最大值）
+     */
+    @Override
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueInBucket(i), getMax());
+            }
+        }
+        return getMax();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.1f, p50=%d, p99=%d, max=%d",
+                getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,28 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+/**
+ * 指标注册表
+ * 按名称创建或获取计数器和分布，同一名称多次获取返回同一个实例。
+ * 默认实现为{@link SimpleMetricsRegistry}，也可以实现此接口把指标转发到已有的监控系统。
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public interface MetricsRegistry {
+    
+    /**
+     * 获取计数器
+     * 
+     * @param name 指标名称
+     * @return 计数器，必须是线程安全的
+     */
+    Counter counter(String name);
+    
+    /**
+     * 获取数值分布
+     * 
+     * @param name 指标名称
+     * @return 数值分布，必须是线程安全的
+     */
+    Histogram histogram(String name);
+}
@@ -0,0 +1,59 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存中的指标注册表
+ * 计数器基于LongAdder，分布为{@link LatencyHistogram}
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+    
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    
+    @Override
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new AdderCounter());
+    }
+    
+    @Override
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+    
+    /**
+     * 按名称排序输出全部指标，每行一个
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        new TreeMap<>(counters).forEach((name, counter) ->
+                builder.append(name).append(": ").append(counter.get()).append('\n'));
+        new TreeMap<>(histograms).forEach((name, histogram) ->
+                builder.append(name).append(": ").append(histogram).append('\n'));
+        return builder.toString();
+    }
+    
+    /**
+     * 基于LongAdder的计数器
+     */
+    private static final class AdderCounter implements Counter {
+        private final LongAdder adder = new LongAdder();
+        
+        @Override
+        public void add(long amount) {
+            adder.add(amount);
+        }
+        
+        @Override
+        public long get() {
+            return adder.sum();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次被统计的遍历对应的JFR事件
+ * 事件持续时间为迭代器的生命周期（创建到遍历结束或关闭），
+ * 只有JFR录制开启了此事件时才会写入，未录制时commit()几乎没有开销
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+@Name("com.dawn.iterator.Traversal")
+@Label("Iterator Traversal")
+@Category({"Design Patterns", "Iterator"})
+@Description("一次被统计的迭代器遍历")
+@StackTrace(false)
+final class TraversalEvent extends Event {
+    
+    @Label("Name")
+    String name;
+    
+    @Label("Elements")
+    long elements;
+    
+    @Label("Completed")
+    boolean completed;
+    
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
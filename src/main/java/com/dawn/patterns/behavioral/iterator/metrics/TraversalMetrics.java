@@ -0,0 +1,29 @@
+package com.dawn.patterns.behavioral.iterator.metrics;
+
+/**
+ * 一个名称下的全部遍历指标（仅供统计装饰器使用）
+ * 创建时一次性从注册表取出，之后每次遍历不再查找
+ * 
+ * @author Dawn
+ * @version 1.0.0
+ */
+final class TraversalMetrics {
+    
+    final String name;
+    final Counter elements;
+    final Counter traversals;
+    final Counter abandoned;
+    final Histogram traversalNanos;
+    final Histogram lifetimeNanos;
+    final Histogram allocatedBytes;
+    
+    TraversalMetrics(String name, MetricsRegistry registry) {
+        this.name = name;
+        this.elements = registry.counter(name + ".elements");
+        this.traversals = registry.counter(name + ".traversals");
+        this.abandoned = registry.counter(name + ".abandoned");
+        this.traversalNanos = registry.histogram(name + ".traversal.nanos");
+        this.lifetimeNanos = registry.histogram(name + ".lifetime.nanos");
+        this.allocatedBytes = registry.histogram(name + ".allocated.bytes");
+    }
+}